@@ -0,0 +1,44 @@
+package com.springboot.gatewayservice.filter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 인증 없이 통과시키는 url 판별 (AuthorizationHeaderFilter) 성능 측정
+// antPathMatcher: 기존 방식 (요청마다 AntPathMatcher 생성 + 목록 순회 + /actuator 접두사 비교)
+// allowListMatcher: 시작할 때 한번 분석해 둔 AllowListMatcher
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AllowListBenchmark {
+
+    private static final List<String> ALLOW_URLS = List.of(
+            "/user/create", "/user/doLogin", "/user/refresh", "/user/health-check",
+            "/product/list", "/product/list/cursor", "/actuator/**"
+    );
+
+    // 허용 목록의 앞/뒤에 있는 url, 접두사로 허용되는 url, 허용되지 않는 url (모든 패턴과 비교)
+    @Param({"/user/create", "/product/list/cursor", "/actuator/health", "/order/my-order"})
+    private String path;
+
+    private AllowListMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        matcher = new AllowListMatcher(ALLOW_URLS);
+    }
+
+    @Benchmark
+    public boolean antPathMatcher() {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        return ALLOW_URLS.stream().anyMatch(url -> antPathMatcher.match(url, path))
+                || path.startsWith("/actuator");
+    }
+
+    @Benchmark
+    public boolean allowListMatcher() {
+        return matcher.matches(path);
+    }
+}
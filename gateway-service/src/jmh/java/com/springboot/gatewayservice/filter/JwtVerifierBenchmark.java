@@ -0,0 +1,57 @@
+package com.springboot.gatewayservice.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// 토큰 검증 (JwtVerifier) 성능 측정: 매번 서명 검증 vs 검증 결과 캐시
+// 게이트웨이는 Netty 이벤트 루프 스레드(보통 CPU 코어 수)가 요청을 나눠서 처리하므로 여러 스레드로 측정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class JwtVerifierBenchmark {
+
+    // 측정용 서명 키 (base64, 512비트)
+    static final String SECRET_KEY =
+            "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJrLW9ubHktYmVuY2htYXJrLW9ubHktYmVuY2htYXJrLW9ubHktMTIzNDU2Nzg5MA==";
+
+    private JwtVerifier jwtVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtVerifier = newVerifier();
+
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.put("id", 1L);
+        claims.put("role", "USER");
+        Date now = new Date();
+        token = Jwts.builder()
+                .setClaims(claims)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + Duration.ofHours(1).toMillis()))
+                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims uncached() {
+        return jwtVerifier.parse(token);
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return jwtVerifier.verify(token);
+    }
+
+    static JwtVerifier newVerifier() {
+        return new JwtVerifier(SECRET_KEY, 50_000, Duration.ofMinutes(30), new SimpleMeterRegistry());
+    }
+}
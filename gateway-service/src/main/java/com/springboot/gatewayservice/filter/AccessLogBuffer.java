@@ -0,0 +1,160 @@
+package com.springboot.gatewayservice.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/*
+ 접근 로그 링 버퍼 + 백그라운드 기록 스레드
+
+ Netty 이벤트 루프 스레드가 로그를 직접 쓰면 appender(파일/콘솔 I/O)를 기다리는 동안
+ 같은 스레드에 묶인 다른 요청들도 함께 늦어진다. 그래서 이벤트 루프는 버퍼에 항목을 넣기만 하고,
+ 문자열 만들기와 실제 기록은 access-log-appender 스레드 하나가 맡는다.
+
+ - 크기가 고정된 배열을 원형으로 사용 (락 없이 CAS로 자리를 잡음, 여러 스레드가 넣고 한 스레드가 꺼냄)
+ - 버퍼가 가득 차면 기다리지 않고 버린다. (버린 개수: gateway.access-log.dropped)
+ - 로그는 "access-log" 로거로 key=value 형식으로 남긴다.
+ */
+@Component
+@Slf4j
+public class AccessLogBuffer {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access-log");
+
+    private final AtomicReferenceArray<Entry> buffer;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // 다음에 넣을 위치 (여러 스레드)
+    private volatile long head; // 다음에 꺼낼 위치 (기록 스레드만 변경)
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final long idleParkNanos;
+    private final StringBuilder line = new StringBuilder(256); // 기록 스레드 전용
+    private volatile boolean running;
+    private Thread appender;
+
+    public AccessLogBuffer(@Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${gateway.access-log.idle-wait:20ms}") Duration idleWait,
+                           MeterRegistry meterRegistry) {
+        // 위치 계산을 나머지 연산 대신 비트 연산으로 하기 위해 2의 거듭제곱으로 맞춘다.
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.idleParkNanos = idleWait.toNanos();
+
+        // 버린 개수는 계속 늘어나기만 하므로 counter로 등록 (rate()로 초당 버린 수를 볼 수 있음)
+        FunctionCounter.builder("gateway.access-log.dropped", dropped, AtomicLong::get)
+                .description("버퍼가 가득 차서 기록하지 못한 접근 로그 수")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access-log.pending", this, AccessLogBuffer::size)
+                .description("기록을 기다리는 접근 로그 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void start() {
+        running = true;
+        appender = new Thread(this::drainLoop, "access-log-appender");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(appender);
+        appender.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 접근 로그 한 건을 버퍼에 추가 (이벤트 루프에서 호출, 기다리지 않음)
+     *
+     * @return - 버퍼가 가득 차서 버렸다면 false
+     */
+    public boolean offer(Entry entry) {
+        while (true) {
+            long current = tail.get();
+            if (current - head >= buffer.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                buffer.lazySet((int) current & mask, entry);
+                return true;
+            }
+        }
+    }
+
+    public long size() {
+        return tail.get() - head;
+    }
+
+    private void drainLoop() {
+        while (running || size() > 0) {
+            if (drain(this::write) == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    // 쌓인 항목을 순서대로 꺼내서 writer로 넘긴다. (기록 스레드에서만 호출)
+    int drain(Consumer<Entry> writer) {
+        int count = 0;
+        while (true) {
+            int index = (int) head & mask;
+            Entry entry = buffer.get(index);
+            if (entry == null) {
+                // 비어 있거나, 자리는 잡았지만 아직 항목을 넣는 중
+                return count;
+            }
+            buffer.lazySet(index, null);
+            head = head + 1; // 칸을 비운 뒤에 head를 옮겨야 생산자가 그 칸을 다시 사용한다.
+            writer.accept(entry);
+            count++;
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            line.setLength(0);
+            line.append("method=").append(entry.method)
+                    .append(" path=").append(entry.uri.getRawPath())
+                    .append(" status=").append(entry.status)
+                    .append(" latency=").append(TimeUnit.NANOSECONDS.toMillis(entry.latencyNanos)).append("ms")
+                    .append(" route=").append(entry.routeId)
+                    .append(" upstream=").append(entry.upstream != null ? entry.upstream.getAuthority() : "-")
+                    .append(" requestId=").append(entry.requestId);
+            ACCESS_LOG.info(line.toString());
+        } catch (Exception e) {
+            log.warn("access log write failed: {}", e.getMessage());
+        }
+    }
+
+    // 요청 한 건의 접근 로그 (문자열은 기록 스레드에서 만든다)
+    @AllArgsConstructor
+    public static class Entry {
+        private final HttpMethod method;
+        private final URI uri;
+        private final int status;
+        private final long latencyNanos;
+        private final String routeId;
+        private final URI upstream; // 로드밸런서가 고른 실제 서비스 인스턴스 주소
+        private final String requestId;
+    }
+}
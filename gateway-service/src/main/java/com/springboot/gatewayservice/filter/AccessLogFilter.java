@@ -0,0 +1,87 @@
+package com.springboot.gatewayservice.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ 모든 라우트에 적용되는 접근 로그 필터 (method, path, status, 처리 시간, 라우트, 실제 서비스 주소)
+
+ 가장 먼저 실행되고 가장 나중에 끝나도록 우선순위를 제일 높게 준다. -> 게이트웨이 전체 처리 시간을 잰다.
+ 이벤트 루프에서는 값만 모아 AccessLogBuffer에 넣고, 로그 문자열은 만들지 않는다.
+
+ sample-rate 비율만큼만 남기되, 에러 응답(4xx, 5xx)과 slow-threshold보다 오래 걸린 요청은 항상 남긴다.
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    private final AccessLogBuffer accessLogBuffer;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(AccessLogBuffer accessLogBuffer,
+                           @Value("${gateway.access-log.enabled:true}") boolean enabled,
+                           @Value("${gateway.access-log.sample-rate:1.0}") double sampleRate,
+                           @Value("${gateway.access-log.slow-threshold:1s}") Duration slowThreshold) {
+        this.accessLogBuffer = accessLogBuffer;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, start, signal));
+    }
+
+    private void record(ServerWebExchange exchange, long start, SignalType signal) {
+        long latencyNanos = System.nanoTime() - start;
+
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        // 예외로 끝났는데 상태 코드가 정해지지 않았다면 에러 핸들러가 500으로 응답한다.
+        int status = statusCode != null ? statusCode.value() : signal == SignalType.ON_ERROR ? 500 : 200;
+
+        boolean always = status >= 400 || latencyNanos >= slowThresholdNanos;
+        if (!always && (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate))) {
+            return;
+        }
+
+        // 필터 체인이 요청을 바꿨을 수 있으므로(RewritePath 등) 게이트웨이가 처음 받은 요청 정보를 사용한다.
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+
+        accessLogBuffer.offer(new AccessLogBuffer.Entry(
+                request.getMethod(),
+                request.getURI(),
+                status,
+                latencyNanos,
+                route != null ? route.getId() : "-",
+                upstream,
+                request.getId()));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,71 @@
+package com.springboot.gatewayservice.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ 인증 없이 통과시키는 url 목록 판별기
+
+ 목록은 필터가 만들어질 때 한번만 분석해서 종류별로 나눠 둔다.
+ - 와일드카드가 없는 url: HashSet -> 요청 경로로 바로 조회
+ - "/actuator/**" 처럼 끝에만 /**가 붙은 url: 접두사 비교
+ - 그 밖의 패턴 ("/product/{id}", "/user/*" 등): PathPattern
+
+ 앞의 두 종류만 사용한다면 요청마다 객체를 만들지 않는다.
+ (PathPattern 비교는 요청 경로를 PathContainer로 변환해야 해서 패턴이 있을 때만 사용)
+ */
+public class AllowListMatcher {
+
+    private final Set<String> exactPaths = new HashSet<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<PathPattern> patterns = new ArrayList<>();
+
+    public AllowListMatcher(List<String> allowUrls) {
+        for (String url : allowUrls) {
+            String trimmed = url.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.endsWith("/**") && !hasWildcard(trimmed.substring(0, trimmed.length() - 3))) {
+                prefixes.add(trimmed.substring(0, trimmed.length() - 3));
+            } else if (!hasWildcard(trimmed)) {
+                exactPaths.add(trimmed);
+            } else {
+                patterns.add(PathPatternParser.defaultInstance.parse(trimmed));
+            }
+        }
+    }
+
+    public boolean matches(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            // "/actuator/**" -> /actuator, /actuator/health (o) /actuators (x)
+            if (path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(pathContainer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasWildcard(String url) {
+        return url.indexOf('*') >= 0 || url.indexOf('?') >= 0 || url.indexOf('{') >= 0;
+    }
+}
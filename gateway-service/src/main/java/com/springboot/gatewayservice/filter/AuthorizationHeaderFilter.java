@@ -1,7 +1,7 @@
 package com.springboot.gatewayservice.filter;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -11,42 +11,59 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
 
 // 회원 권한 요청 처리 -> 토큰이 유효한 지를 확인해서 유효하다면 통과, 유효하지 않다면 차단.
 @Component
 @Slf4j
-public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory {
+public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory<AuthorizationHeaderFilter.Config> {
 
-    @Value("${jwt.secretKey}")
-    private String secretKey;
+    private final JwtVerifier jwtVerifier;
 
-    // 몇개 제거함
-    private final List<String> allowUrl = Arrays.asList(
-            "/user/create", "/user/doLogin", "/user/refresh",
-            "/product/list", "/user/health-check"
-    );
+    // 게이트웨이가 토큰을 검증한 뒤 채워주는 헤더들
+    private static final List<String> USER_HEADERS = List.of("X-User-Email", "X-User-Role", "X-User-Id");
+
+    // 인증 없이 통과시키는 url (config-service의 gateway.auth.allow-urls로 변경 가능)
+    // actuator는 health만 허용 -> /actuator/sqlprofiler 등은 토큰을 검증하고, 각 서비스가 ADMIN 권한을 확인한다.
+    private final AllowListMatcher defaultAllowList;
+
+    public AuthorizationHeaderFilter(
+            JwtVerifier jwtVerifier,
+            @Value("${gateway.auth.allow-urls:/user/create,/user/doLogin,/user/refresh,/user/health-check,"
+                    + "/product/list,/product/list/cursor,/actuator/health/**}") List<String> allowUrls) {
+        super(Config.class);
+        this.jwtVerifier = jwtVerifier;
+        this.defaultAllowList = new AllowListMatcher(allowUrls);
+    }
 
     @Override
-    public GatewayFilter apply(Object config) {
+    public GatewayFilter apply(Config config) {
+        // 라우트에 allowUrls를 따로 지정했다면 그 목록을 사용 (라우트가 만들어질 때 한번만 분석)
+        AllowListMatcher allowList = config.getAllowUrls() != null
+                ? new AllowListMatcher(config.getAllowUrls())
+                : defaultAllowList;
+
         return (exchange, chain) -> {
             // 토큰이 필요한 요청은 Header에 Authorization 이라는 이름으로 Bearer ~~~가 전달됨.
             String path = exchange.getRequest().getURI().getPath();
 
-            AntPathMatcher antPathMatcher = new AntPathMatcher();
+            boolean isAllowed = allowList.matches(path);
 
-            // 허용 url 리스트를 순회하면서 지금 들어온 요청 url과 하나라도 일치하면 true 리턴
-            boolean isAllowed
-                    = allowUrl.stream().anyMatch(url -> antPathMatcher.match(url, path));
+            // 클라이언트가 직접 보낸 X-User-* 헤더는 믿을 수 없으므로 항상 제거한다.
+            // (뒤쪽 서비스는 이 헤더를 게이트웨이가 검증한 값으로 믿고 사용)
+            exchange = exchange.mutate()
+                    .request(exchange.getRequest().mutate()
+                            .headers(headers -> USER_HEADERS.forEach(headers::remove))
+                            .build())
+                    .build();
 
-            log.info("isAllowed:{}", isAllowed);
-            if (isAllowed || path.startsWith("/actuator")) {
+            // 요청마다 이벤트 루프에서 실행되므로 debug로만 남긴다.
+            log.debug("path: {}, isAllowed: {}", path, isAllowed);
+            if (isAllowed) {
                 // 허용 url이 맞다면 그냥 통과~
                 return chain.filter(exchange);
             }
@@ -64,19 +81,25 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory {
             String token
                     = authorizationHeader.replace("Bearer ", "");
 
-            // JWT 토큰 유효성 검증 및 클레임 얻어내기
-            Claims claims = validateJwt(token);
+            // JWT 토큰 유효성 검증 및 클레임 얻어내기 (한번 검증한 토큰은 만료될 때까지 캐시에서 꺼냄)
+            Claims claims = jwtVerifier.verify(token);
             if (claims == null) {
                 // jwt 토큰에 문제가 있을 경우 (서명 위조 or 수명 만료)
                 return onError(exchange, "Authorization header is missing or invalid", HttpStatus.FORBIDDEN);
             }
 
             // 사용자 정보를 클레임에서 꺼내서 헤더에 담자
-            ServerHttpRequest request = exchange.getRequest()
+            ServerHttpRequest.Builder requestBuilder = exchange.getRequest()
                     .mutate()
                     .header("X-User-Email", claims.getSubject())
-                    .header("X-User-Role", claims.get("role", String.class))
-                    .build();
+                    .header("X-User-Role", claims.get("role", String.class));
+
+            // id 클레임은 이후 발급된 토큰에만 있다. (이전 토큰이면 헤더 없이 보내고, 각 서비스가 이메일로 조회)
+            Object userId = claims.get("id");
+            if (userId != null) {
+                requestBuilder.header("X-User-Id", String.valueOf(userId));
+            }
+            ServerHttpRequest request = requestBuilder.build();
 
             // 새롭게 만든 (토큰 정보를 헤더에 담은) request를 exchange에 갈아끼워서 보내자.
             // 필터도 통과시키자.
@@ -101,16 +124,16 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory {
         return response.writeWith(Mono.just(buffer));
     }
 
-    private Claims validateJwt(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
-            log.error("JWT validation failed: {}", e.getMessage());
-            return null;
-        }
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Config {
+        // 이 라우트에서만 사용할 허용 url 목록 (없으면 gateway.auth.allow-urls)
+        // ex) - name: AuthorizationHeaderFilter
+        //       args:
+        //         allowUrls: /user/create, /user/doLogin, /actuator/**
+        private List<String> allowUrls;
     }
 }
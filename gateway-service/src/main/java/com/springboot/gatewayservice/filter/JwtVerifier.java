@@ -0,0 +1,113 @@
+package com.springboot.gatewayservice.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.Date;
+
+/*
+ JWT 서명 검증 + 검증 결과 캐시
+
+ 같은 토큰은 만료될 때까지 수백 번씩 다시 전달되는데, 매 요청마다 parser를 새로 만들고
+ base64 디코딩 -> HMAC 서명 검증 -> JSON 파싱을 반복할 필요는 없다.
+
+ - 서명 키는 서버가 뜰 때 한번만 디코딩하고, parser(불변, thread-safe)도 한번만 만든다.
+ - 검증에 성공한 토큰의 클레임을 캐시(Caffeine, 크기 제한)에 보관하고, 토큰의 exp 시각에 캐시에서 지운다.
+ - 캐시 키는 토큰 문자열 전체. (조회는 해시로 하고, 일치 여부는 문자열 전체로 확인)
+   서명 부분만 키로 쓰면 서명은 그대로 두고 payload만 바꾼 토큰이 캐시에 걸릴 수 있어서 사용하지 않는다.
+ - 검증에 실패한 토큰은 캐시하지 않는다.
+ */
+@Component
+@Slf4j
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, Claims> cache;
+    private final long maxTtlNanos;
+
+    public JwtVerifier(@Value("${jwt.secretKey}") String secretKey,
+                       @Value("${gateway.jwt-cache.max-size:50000}") long maxSize,
+                       @Value("${gateway.jwt-cache.max-ttl:30m}") Duration maxTtl,
+                       MeterRegistry meterRegistry) {
+        // user-service는 base64로 인코딩된 secretKey로 HS256 서명을 한다.
+        SecretKeySpec key = new SecretKeySpec(Decoders.BASE64.decode(secretKey), SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.maxTtlNanos = maxTtl.toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        return untilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return untilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // 적중률: /actuator/metrics/cache.gets?tag=cache:jwt
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+    }
+
+    /**
+     * 토큰을 검증하고 클레임을 리턴 (캐시에 있으면 다시 검증하지 않음)
+     *
+     * @return - 서명이 위조됐거나 만료된 토큰이면 null
+     */
+    public Claims verify(String token) {
+        Claims cached = cache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parse(token);
+        if (claims != null) {
+            cache.put(token, claims);
+        }
+        return claims;
+    }
+
+    // 캐시를 사용하지 않고 검증 (서명 검증 + 만료 확인)
+    public Claims parse(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            log.error("JWT validation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // 토큰의 exp까지 남은 시간 (exp가 없으면 max-ttl)
+    private long untilExpiration(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return maxTtlNanos;
+        }
+        long remaining = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+        return Math.max(0, Math.min(remaining, maxTtlNanos));
+    }
+}
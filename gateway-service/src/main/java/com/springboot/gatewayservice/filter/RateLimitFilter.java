@@ -0,0 +1,129 @@
+package com.springboot.gatewayservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/*
+ 사용자별, 라우트별 요청 수 제한 (토큰 버킷, TokenBucketRateLimiter)
+
+ - 로그인한 사용자는 X-User-Email(AuthorizationHeaderFilter가 토큰을 검증하고 넣어준 값)로,
+   토큰 없이 허용된 요청은 클라이언트 IP로 구분한다.
+   -> 라우트 filters에서 AuthorizationHeaderFilter 다음에 선언해야 한다.
+ - 한도를 넘으면 429 + Retry-After(초) 헤더로 응답하고, 뒤쪽 서비스로 요청을 보내지 않는다.
+
+ 라우트마다 한도를 다르게 줄 수 있다. (없으면 gateway.rate-limit.replenish-rate, burst-capacity)
+ ex) - name: RateLimitFilter
+       args:
+         replenishRate: 5
+         burstCapacity: 10
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final int defaultReplenishRate;
+    private final int defaultBurstCapacity;
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter,
+                           MeterRegistry meterRegistry,
+                           @Value("${gateway.rate-limit.replenish-rate:10}") int defaultReplenishRate,
+                           @Value("${gateway.rate-limit.burst-capacity:20}") int defaultBurstCapacity) {
+        super(Config.class);
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.defaultReplenishRate = defaultReplenishRate;
+        this.defaultBurstCapacity = defaultBurstCapacity;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        int replenishRate = config.getReplenishRate() != null ? config.getReplenishRate() : defaultReplenishRate;
+        int burstCapacity = config.getBurstCapacity() != null ? config.getBurstCapacity() : defaultBurstCapacity;
+        if (replenishRate <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("replenishRate는 0보다, burstCapacity는 1 이상이어야 합니다.");
+        }
+
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            String key = routeId + ":" + resolveUser(exchange);
+
+            return rateLimiter.tryConsume(key, replenishRate, burstCapacity).flatMap(result -> {
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.set("X-RateLimit-Limit", String.valueOf(burstCapacity));
+                headers.set("X-RateLimit-Remaining", String.valueOf(result.getRemaining()));
+
+                if (result.isAllowed()) {
+                    return chain.filter(exchange);
+                }
+
+                rejectedCounter(routeId).increment();
+                // Retry-After는 초 단위 정수 -> 올림 (최소 1초)
+                long retryAfterSeconds = Math.max(1, (result.getRetryAfterMillis() + 999) / 1000);
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                return onError(exchange, "Too many requests", HttpStatus.TOO_MANY_REQUESTS);
+            });
+        };
+    }
+
+    // 토큰이 검증된 사용자는 이메일, 그렇지 않으면 IP
+    private String resolveUser(ServerWebExchange exchange) {
+        String email = exchange.getRequest().getHeaders().getFirst("X-User-Email");
+        if (email != null) {
+            return email;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + remoteAddress.getAddress().getHostAddress();
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, String msg, HttpStatus httpStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(httpStatus);
+
+        byte[] bytes = msg.getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    // 라우트별 거절된 요청 수
+    private Counter rejectedCounter(String routeId) {
+        return Counter.builder("gateway.rate-limit.rejected")
+                .description("요청 수 제한으로 거절된 요청 수")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Config {
+        // 초당 채워지는 토큰 수 (평균적으로 허용하는 초당 요청 수)
+        private Integer replenishRate;
+        // 버킷 크기 (순간적으로 몰아서 보낼 수 있는 요청 수)
+        private Integer burstCapacity;
+    }
+}
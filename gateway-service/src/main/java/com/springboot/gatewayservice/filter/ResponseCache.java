@@ -0,0 +1,160 @@
+package com.springboot.gatewayservice.filter;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ 게이트웨이 응답 캐시 저장소 (ResponseCacheFilter)
+
+ - 1차: 게이트웨이 서버 메모리 (Caffeine) -> 전체 body 크기(max-memory)로 제한, 항목마다 자기 만료 시각에 삭제
+ - 2차(선택): Redis (gateway.response-cache.redis.enabled=true)
+   게이트웨이가 여러 대일 때 한 서버가 받아온 응답을 다른 서버도 사용한다.
+   Redis에서 찾은 응답은 메모리에도 넣어두고, Redis 오류는 캐시 miss로 처리한다.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private static final String KEY_PREFIX = "response-cache:";
+
+    private final Cache<String, CachedResponse> localCache;
+    private final ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final long maxEntryBytes;
+
+    public ResponseCache(ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${gateway.response-cache.max-memory:64MB}") DataSize maxMemory,
+                         @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                         @Value("${gateway.response-cache.redis.enabled:false}") boolean redisEnabled) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, CachedResponse response) -> response.getBody().length + key.length())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return untilExpiration(response);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return untilExpiration(response);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // 적중률: /actuator/metrics/cache.gets?tag=cache:gatewayResponse
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "gatewayResponse");
+    }
+
+    // 한 항목으로 저장할 수 있는 최대 body 크기
+    public long getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public Mono<CachedResponse> get(String key) {
+        CachedResponse cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        ReactiveStringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForValue().get(KEY_PREFIX + key)
+                .flatMap(json -> {
+                    try {
+                        return Mono.just(objectMapper.readValue(json, CachedResponse.class));
+                    } catch (Exception e) {
+                        return Mono.empty();
+                    }
+                })
+                .filter(response -> !response.isExpired())
+                .doOnNext(response -> localCache.put(key, response))
+                .onErrorResume(e -> {
+                    log.warn("Redis response cache read failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public void put(String key, CachedResponse response) {
+        localCache.put(key, response);
+
+        ReactiveStringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            Duration ttl = Duration.ofMillis(response.getExpiresAt() - System.currentTimeMillis());
+            if (ttl.isNegative() || ttl.isZero()) {
+                return;
+            }
+            // 응답을 기다리지 않는다. (저장이 실패해도 다음 요청이 다시 받아오면 됨)
+            redisTemplate.opsForValue()
+                    .set(KEY_PREFIX + key, objectMapper.writeValueAsString(response), ttl)
+                    .subscribe(null, e -> log.warn("Redis response cache write failed: {}", e.getMessage()));
+        } catch (Exception e) {
+            log.warn("Redis response cache write failed: {}", e.getMessage());
+        }
+    }
+
+    private ReactiveStringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static long untilExpiration(CachedResponse response) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, response.getExpiresAt() - System.currentTimeMillis()));
+    }
+
+    // 캐시에 저장하는 응답 (Redis에는 JSON으로 저장, body는 base64)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private int status;
+        private Map<String, List<String>> headers;
+        private byte[] body;
+        private String etag;
+        private long expiresAt; // epoch millis
+
+        @JsonIgnore
+        public boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.springboot.gatewayservice.filter;
+
+import com.springboot.gatewayservice.filter.ResponseCache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ GET 응답 캐시 필터 (상품 목록/상세처럼 누구에게나 같은 응답을 주는 라우트에만 적용)
+
+ 1. 캐시(ResponseCache)에 응답이 있으면 뒤쪽 서비스로 보내지 않고 바로 응답 (X-Cache: HIT)
+    요청의 If-None-Match가 저장된 ETag와 같으면 body 없이 304
+ 2. 없으면 뒤쪽 서비스로 보내고, 응답 body를 모아서 캐시에 저장 (X-Cache: MISS)
+    같은 캐시 키로 동시에 들어온 요청들은 첫 요청의 응답을 기다렸다가 함께 사용한다. (X-Cache: COLLAPSED)
+    -> 캐시가 만료되는 순간 몰린 요청이 한꺼번에 상품 서비스로 가지 않는다.
+
+ Cache-Control 처리
+ - 응답: no-store, no-cache, private이거나 Set-Cookie가 있으면 저장하지 않는다. max-age(s-maxage)가 있으면 ttl보다 짧게 저장
+ - 요청: no-cache, no-store면 캐시를 보지 않고 뒤쪽 서비스에서 새로 받아온다.
+ - ETag: 뒤쪽 서비스가 주지 않으면 body의 MD5로 만든다.
+
+ 토큰 검증이 끝난 요청만 캐시를 사용하도록 라우트 filters에서 AuthorizationHeaderFilter, RateLimitFilter 다음에 선언한다.
+ ex) - name: ResponseCacheFilter
+       args:
+         paths: /product/list, /product/{prodId}
+         ttl: 5s
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    // 저장된 응답을 돌려줄 때 함께 돌려주는 헤더 (CORS 등 요청마다 달라지는 헤더는 저장하지 않음)
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY
+    );
+
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration defaultTtl;
+    private final Duration collapseTimeout;
+
+    // 뒤쪽 서비스에 요청 중인 캐시 키 -> 그 응답을 기다리는 요청들이 구독
+    private final Map<String, Sinks.One<CachedResponse>> inflight = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCache responseCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${gateway.response-cache.ttl:5s}") Duration defaultTtl,
+                               @Value("${gateway.response-cache.collapse-timeout:3s}") Duration collapseTimeout) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        this.defaultTtl = defaultTtl;
+        this.collapseTimeout = collapseTimeout;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // 경로 목록은 라우트가 만들어질 때 한번만 분석 (없으면 라우트의 모든 GET 요청)
+        AllowListMatcher paths = config.getPaths() != null ? new AllowListMatcher(config.getPaths()) : null;
+        Duration ttl = config.getTtl() != null ? config.getTtl() : defaultTtl;
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET
+                    || (paths != null && !paths.matches(request.getURI().getRawPath()))) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(exchange, config.isVaryByUser());
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+
+            if (isNoCacheRequest(request)) {
+                requestCounter("bypass").increment();
+                return fetch(exchange, chain, key, ttl, null);
+            }
+
+            // writeCached는 값 없이 완료되므로, 찾았는지 여부는 Optional로 구분한다.
+            // (writeCached 뒤에 switchIfEmpty를 붙이면 캐시에 있어도 뒤쪽 서비스로 다시 요청하게 됨)
+            return responseCache.get(key)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cached -> {
+                        if (cached.isEmpty()) {
+                            return fetchOrJoin(exchange, chain, key, ttl);
+                        }
+                        requestCounter("hit").increment();
+                        return writeCached(exchange, cached.get(), "HIT");
+                    });
+        };
+    }
+
+    // 같은 키로 이미 뒤쪽 서비스에 요청 중이라면 그 응답을 기다리고, 아니면 직접 요청
+    private Mono<Void> fetchOrJoin(ServerWebExchange exchange, GatewayFilterChain chain, String key, Duration ttl) {
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inflight.putIfAbsent(key, sink);
+        if (leader == null) {
+            requestCounter("miss").increment();
+            return fetch(exchange, chain, key, ttl, sink)
+                    .doFinally(signal -> {
+                        inflight.remove(key, sink);
+                        sink.tryEmitEmpty(); // 저장할 수 없는 응답이었다면 기다리던 요청들은 각자 요청
+                    });
+        }
+
+        // 첫 요청의 응답을 기다리다 시간이 지나면 직접 요청 (응답 쓰기 중의 오류는 그대로 전달)
+        return leader.asMono()
+                .timeout(collapseTimeout)
+                .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (cached.isEmpty()) {
+                        requestCounter("miss").increment();
+                        return fetch(exchange, chain, key, ttl, null);
+                    }
+                    requestCounter("collapsed").increment();
+                    return writeCached(exchange, cached.get(), "COLLAPSED");
+                });
+    }
+
+    // 뒤쪽 서비스로 요청을 보내고, 응답 body를 모아서 캐시에 저장
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain,
+                             String key, Duration ttl, Sinks.One<CachedResponse> sink) {
+        ServerHttpResponse original = exchange.getResponse();
+        original.getHeaders().set("X-Cache", "MISS");
+
+        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(body)
+                        .map(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+                            return bytes;
+                        })
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(bytes -> {
+                            CachedResponse cached = toCachedResponse(getDelegate(), bytes, ttl);
+                            if (cached != null) {
+                                responseCache.put(key, cached);
+                                getDelegate().getHeaders().setETag(cached.getEtag());
+                                if (sink != null) {
+                                    sink.tryEmitValue(cached);
+                                }
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).flatMapSequential(p -> p));
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    // 저장할 수 있는 응답이면 CachedResponse로 변환 (아니면 null)
+    private CachedResponse toCachedResponse(ServerHttpResponse response, byte[] body, Duration ttl) {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || body.length > responseCache.getMaxEntryBytes()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+
+        long ttlMillis = ttl.toMillis();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase();
+            if (directives.contains("no-store") || directives.contains("no-cache") || directives.contains("private")) {
+                return null;
+            }
+            Matcher maxAge = MAX_AGE.matcher(directives);
+            if (maxAge.find()) {
+                ttlMillis = Math.min(ttlMillis, Long.parseLong(maxAge.group(1)) * 1000);
+            }
+        }
+        if (ttlMillis <= 0) {
+            return null;
+        }
+
+        Map<String, List<String>> stored = new LinkedHashMap<>();
+        for (String name : STORED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                stored.put(name, List.copyOf(values));
+            }
+        }
+        String etag = headers.getETag() != null ? headers.getETag()
+                : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+
+        return new CachedResponse(status.value(), stored, body, etag, System.currentTimeMillis() + ttlMillis);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String result) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.getHeaders().forEach(headers::put);
+        headers.setETag(cached.getEtag());
+        headers.set("X-Cache", result);
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    // 라우트 + 경로 + 쿼리 (+ 사용자). 사용자별로 캐시해야 하는데 사용자를 알 수 없으면 null -> 캐시하지 않음
+    private String cacheKey(ServerWebExchange exchange, boolean varyByUser) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+
+        StringBuilder key = new StringBuilder()
+                .append(route != null ? route.getId() : "-")
+                .append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (varyByUser) {
+            String email = request.getHeaders().getFirst("X-User-Email");
+            if (email == null) {
+                return null;
+            }
+            key.append(" user=").append(email);
+        }
+        return key.toString();
+    }
+
+    private boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        try {
+            List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+            return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+        } catch (IllegalArgumentException e) {
+            // 형식이 잘못된 If-None-Match는 없는 것으로 본다.
+            return false;
+        }
+    }
+
+    private boolean isNoCacheRequest(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        if (cacheControl == null) {
+            return false;
+        }
+        String directives = cacheControl.toLowerCase();
+        return directives.contains("no-cache") || directives.contains("no-store");
+    }
+
+    // 캐시 사용 결과별 요청 수 (hit, miss, collapsed, bypass)
+    private Counter requestCounter(String result) {
+        return Counter.builder("gateway.response-cache.requests")
+                .description("응답 캐시 사용 결과별 요청 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Config {
+        // 캐시할 경로 (AllowListMatcher와 같은 형식, 없으면 라우트의 모든 GET 요청)
+        private List<String> paths;
+        // 최대 캐시 시간 (응답의 max-age가 더 짧으면 max-age, 없으면 gateway.response-cache.ttl)
+        private Duration ttl;
+        // 사용자마다 다른 응답을 주는 경로라면 true (X-User-Email별로 따로 저장)
+        private boolean varyByUser;
+    }
+}
@@ -0,0 +1,160 @@
+package com.springboot.gatewayservice.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/*
+ 토큰 버킷 방식의 요청 수 제한
+
+ 버킷마다 최대 burstCapacity개의 토큰이 있고, 초당 replenishRate개씩 다시 채워진다.
+ 요청 1건에 토큰 1개를 쓰고, 토큰이 없으면 다음 토큰이 채워질 때까지 기다려야 하는 시간을 알려준다.
+
+ - local(기본): 게이트웨이 서버 메모리(Caffeine)에 버킷 보관. 네트워크 왕복이 없다.
+   게이트웨이가 여러 대라면 서버마다 따로 계산되므로 실제 허용량은 (서버 수 x 한도)가 된다.
+ - redis: 모든 게이트웨이가 Redis의 같은 버킷을 사용한다. (Lua 스크립트로 읽기-계산-쓰기를 한번에 처리)
+   Redis 호출이 실패하면 요청을 막지 않고 local 버킷으로 대신 판단한다.
+ */
+@Component
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // KEYS[1]: 버킷 키, ARGV: replenishRate, burstCapacity
+    // 모든 게이트웨이가 같은 시계를 쓰도록 시각은 Redis 서버 시간(TIME)을 사용
+    // return: {허용 여부(1/0), 남은 토큰 수, 다음 토큰까지 남은 시간(ms)}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = RedisScript.of("""
+            local rate = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+
+            local allowed = 0
+            local retryAfter = 0
+            if tokens >= 1 then
+                allowed = 1
+                tokens = tokens - 1
+            else
+                retryAfter = math.ceil((1 - tokens) * 1000 / rate)
+            end
+
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+            return {allowed, math.floor(tokens), retryAfter}
+            """, List.class);
+
+    private final ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider;
+    private final boolean redisMode;
+    private final Cache<String, LocalBucket> localBuckets;
+    private final LongSupplier nanoClock; // local 버킷 시계 (테스트에서는 직접 조정하는 시계를 넣는다)
+
+    @Autowired
+    public TokenBucketRateLimiter(ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+                                  @Value("${gateway.rate-limit.mode:local}") String mode,
+                                  @Value("${gateway.rate-limit.local.max-buckets:100000}") long maxBuckets,
+                                  @Value("${gateway.rate-limit.local.idle-timeout:10m}") Duration idleTimeout) {
+        this(redisTemplateProvider, mode, maxBuckets, idleTimeout, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+                           String mode, long maxBuckets, Duration idleTimeout, LongSupplier nanoClock) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.redisMode = "redis".equalsIgnoreCase(mode);
+        this.nanoClock = nanoClock;
+        // 한동안 요청이 없는 버킷은 가득 찬 상태와 같으므로 지워도 된다.
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * 버킷에서 토큰 1개를 사용
+     *
+     * @param key           - 버킷 키 (라우트 + 사용자)
+     * @param replenishRate  - 초당 채워지는 토큰 수
+     * @param burstCapacity  - 버킷 크기 (한번에 몰아서 보낼 수 있는 요청 수)
+     */
+    public Mono<Result> tryConsume(String key, int replenishRate, int burstCapacity) {
+        if (!redisMode) {
+            return Mono.just(consumeLocal(key, replenishRate, burstCapacity));
+        }
+
+        ReactiveStringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return Mono.just(consumeLocal(key, replenishRate, burstCapacity));
+        }
+
+        // {키}: Redis Cluster에서도 한 노드에서 실행되도록 해시 태그로 감싼다.
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+                        List.of(KEY_PREFIX + "{" + key + "}"),
+                        List.of(String.valueOf(replenishRate), String.valueOf(burstCapacity)))
+                .next()
+                .map(response -> new Result(
+                        ((Number) response.get(0)).longValue() == 1,
+                        ((Number) response.get(1)).longValue(),
+                        ((Number) response.get(2)).longValue()))
+                .onErrorResume(e -> {
+                    log.warn("Redis rate limit failed, fallback to local bucket: {}", e.getMessage());
+                    return Mono.just(consumeLocal(key, replenishRate, burstCapacity));
+                });
+    }
+
+    private Result consumeLocal(String key, int replenishRate, int burstCapacity) {
+        return localBuckets.get(key, k -> new LocalBucket(burstCapacity, nanoClock.getAsLong()))
+                .tryConsume(nanoClock, replenishRate, burstCapacity);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final boolean allowed;
+        private final long remaining; // 남은 토큰 수
+        private final long retryAfterMillis; // 거절된 경우 다음 토큰이 채워질 때까지 남은 시간
+    }
+
+    // 서버 메모리 버킷 (버킷 하나에 대한 계산은 짧으므로 synchronized로 충분)
+    private static class LocalBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private LocalBucket(int burstCapacity, long now) {
+            this.tokens = burstCapacity;
+            this.refilledAt = now;
+        }
+
+        private synchronized Result tryConsume(LongSupplier clock, int replenishRate, int burstCapacity) {
+            long now = clock.getAsLong();
+            tokens = Math.min(burstCapacity, tokens + (now - refilledAt) * replenishRate / 1_000_000_000.0);
+            refilledAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Result(true, (long) tokens, 0);
+            }
+            long retryAfterMillis = (long) Math.ceil((1 - tokens) * 1000 / replenishRate);
+            return new Result(false, 0, retryAfterMillis);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.springboot.gatewayservice.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 기록 스레드는 띄우지 않고 drain()을 직접 호출해서 확인
+class AccessLogBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 크기 4 -> 2의 거듭제곱이므로 그대로 4칸
+    private final AccessLogBuffer buffer = new AccessLogBuffer(4, Duration.ofMillis(20), meterRegistry);
+
+    @Test
+    void fullBufferDropsAndCounts() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(entry(i))).isTrue();
+        }
+
+        assertThat(buffer.offer(entry(4))).isFalse();
+        assertThat(buffer.offer(entry(5))).isFalse();
+
+        assertThat(buffer.size()).isEqualTo(4);
+        assertThat(dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void wrapsAroundAfterDrain() {
+        List<AccessLogBuffer.Entry> written = new ArrayList<>();
+        List<AccessLogBuffer.Entry> offered = new ArrayList<>();
+
+        // 4칸 버퍼를 세 바퀴 돌면서 넣은 순서대로 꺼내지는지 확인
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                AccessLogBuffer.Entry entry = entry(round * 3 + i);
+                offered.add(entry);
+                assertThat(buffer.offer(entry)).isTrue();
+            }
+            assertThat(buffer.drain(written::add)).isEqualTo(3);
+            assertThat(buffer.size()).isZero();
+        }
+
+        assertThat(written).containsExactlyElementsOf(offered);
+        assertThat(dropped()).isZero();
+    }
+
+    @Test
+    void drainedSlotsCanBeReusedAfterDrop() {
+        for (int i = 0; i < 4; i++) {
+            buffer.offer(entry(i));
+        }
+        assertThat(buffer.offer(entry(4))).isFalse();
+
+        List<AccessLogBuffer.Entry> written = new ArrayList<>();
+        assertThat(buffer.drain(written::add)).isEqualTo(4);
+
+        AccessLogBuffer.Entry next = entry(5);
+        assertThat(buffer.offer(next)).isTrue();
+        assertThat(buffer.drain(written::add)).isEqualTo(1);
+        assertThat(written).hasSize(5).last().isSameAs(next);
+        assertThat(dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyBufferDrainsNothing() {
+        assertThat(buffer.drain(entry -> {
+            throw new AssertionError("비어 있는 버퍼에서 항목이 나옴");
+        })).isZero();
+    }
+
+    private double dropped() {
+        FunctionCounter counter = meterRegistry.get("gateway.access-log.dropped").functionCounter();
+        return counter.count();
+    }
+
+    private AccessLogBuffer.Entry entry(int index) {
+        return new AccessLogBuffer.Entry(HttpMethod.GET, URI.create("/product/" + index), 200,
+                1_000_000L, "product-service", null, "req-" + index);
+    }
+}
@@ -0,0 +1,49 @@
+package com.springboot.gatewayservice.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllowListMatcherTest {
+
+    private final AllowListMatcher matcher = new AllowListMatcher(List.of(
+            "/user/create", " /user/doLogin ", "",
+            "/actuator/**",
+            "/product/{prodId}", "/user/*/public"));
+
+    @Test
+    void exactPathMatches() {
+        assertThat(matcher.matches("/user/create")).isTrue();
+        // 설정값의 앞뒤 공백은 무시
+        assertThat(matcher.matches("/user/doLogin")).isTrue();
+    }
+
+    @Test
+    void prefixMatchesOnlyOnSegmentBoundary() {
+        assertThat(matcher.matches("/actuator")).isTrue();
+        assertThat(matcher.matches("/actuator/health")).isTrue();
+        assertThat(matcher.matches("/actuator/metrics/http.server.requests")).isTrue();
+        assertThat(matcher.matches("/actuators")).isFalse();
+    }
+
+    @Test
+    void pathPatternMatches() {
+        assertThat(matcher.matches("/product/42")).isTrue();
+        assertThat(matcher.matches("/user/42/public")).isTrue();
+        assertThat(matcher.matches("/product/42/detail")).isFalse();
+    }
+
+    @Test
+    void unlistedPathDoesNotMatch() {
+        assertThat(matcher.matches("/user/myInfo")).isFalse();
+        assertThat(matcher.matches("/user/create/extra")).isFalse();
+        assertThat(matcher.matches("/")).isFalse();
+    }
+
+    @Test
+    void emptyListMatchesNothing() {
+        assertThat(new AllowListMatcher(List.of()).matches("/user/create")).isFalse();
+    }
+}
@@ -0,0 +1,118 @@
+package com.springboot.gatewayservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 호출 횟수를 세는 가짜 뒤쪽 서비스로 캐시 hit/304/요청 합치기를 확인
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"result\":[1,2,3]}";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCache responseCache = new ResponseCache(
+                new DefaultListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                new ObjectMapper(), new SimpleMeterRegistry(),
+                DataSize.ofMegabytes(1), DataSize.ofKilobytes(64), false);
+        ResponseCacheFilter factory = new ResponseCacheFilter(
+                responseCache, new SimpleMeterRegistry(), Duration.ofSeconds(5), Duration.ofSeconds(3));
+        filter = factory.apply(new ResponseCacheFilter.Config(
+                List.of("/product/list", "/product/{prodId}"), Duration.ofSeconds(5), false));
+    }
+
+    @Test
+    void hitDoesNotCallUpstream() {
+        MockServerWebExchange first = get("/product/list");
+        filter.filter(first, upstream(Duration.ZERO, "public, max-age=5")).block();
+
+        MockServerWebExchange second = get("/product/list");
+        filter.filter(second, upstream(Duration.ZERO, "public, max-age=5")).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() {
+        MockServerWebExchange first = get("/product/list");
+        filter.filter(first, upstream(Duration.ZERO, "public, max-age=5")).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange second = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/product/list").header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(second, upstream(Duration.ZERO, "public, max-age=5")).block();
+
+        assertThat(etag).isNotNull();
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() {
+        MockServerWebExchange leader = get("/product/1");
+        MockServerWebExchange follower = get("/product/1");
+        GatewayFilterChain slowUpstream = upstream(Duration.ofMillis(200), "public, max-age=5");
+
+        // zip은 앞의 Mono부터 구독하므로 leader가 먼저 뒤쪽 서비스로 요청한다.
+        Mono.zip(filter.filter(leader, slowUpstream).thenReturn(true),
+                filter.filter(follower, slowUpstream).thenReturn(true)).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("COLLAPSED");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void noStoreResponseIsNotCached() {
+        filter.filter(get("/product/list"), upstream(Duration.ZERO, "no-store")).block();
+        filter.filter(get("/product/list"), upstream(Duration.ZERO, "no-store")).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    // 구독될 때 호출 횟수를 올리고, delay 뒤에 200 응답을 쓰는 가짜 뒤쪽 서비스
+    private GatewayFilterChain upstream(Duration delay, String cacheControl) {
+        return exchange -> Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.delay(delay).then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                response.getHeaders().setCacheControl(cacheControl);
+                return response.writeWith(Mono.just(
+                        response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+            }));
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package com.springboot.gatewayservice.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// local 버킷은 직접 조정하는 시계로, redis 모드는 가짜 템플릿으로 확인
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burstCapacityIsAllowedAtOnce() {
+        TokenBucketRateLimiter limiter = localLimiter();
+
+        for (int i = 0; i < 5; i++) {
+            TokenBucketRateLimiter.Result result = limiter.tryConsume("user", 1, 5).block();
+            assertThat(result.isAllowed()).isTrue();
+            assertThat(result.getRemaining()).isEqualTo(4 - i);
+        }
+
+        TokenBucketRateLimiter.Result rejected = limiter.tryConsume("user", 1, 5).block();
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRetryAfterMillis()).isEqualTo(1000);
+    }
+
+    @Test
+    void tokensRefillAtReplenishRate() {
+        TokenBucketRateLimiter limiter = localLimiter();
+        drain(limiter, "user", 2, 4);
+
+        // 초당 2개 -> 250ms 후에는 아직 토큰이 없고, 다음 토큰까지 250ms
+        advance(250);
+        TokenBucketRateLimiter.Result early = limiter.tryConsume("user", 2, 4).block();
+        assertThat(early.isAllowed()).isFalse();
+        assertThat(early.getRetryAfterMillis()).isEqualTo(250);
+
+        // 1초 후 -> 2개만 허용
+        advance(750);
+        assertThat(limiter.tryConsume("user", 2, 4).block().isAllowed()).isTrue();
+        assertThat(limiter.tryConsume("user", 2, 4).block().isAllowed()).isTrue();
+        assertThat(limiter.tryConsume("user", 2, 4).block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void refillNeverExceedsBurstCapacity() {
+        TokenBucketRateLimiter limiter = localLimiter();
+        drain(limiter, "user", 10, 3);
+
+        advance(60_000);
+        drain(limiter, "user", 10, 3);
+        assertThat(limiter.tryConsume("user", 10, 3).block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void bucketsAreSeparatedByKey() {
+        TokenBucketRateLimiter limiter = localLimiter();
+        drain(limiter, "user-a", 1, 2);
+
+        assertThat(limiter.tryConsume("user-a", 1, 2).block().isAllowed()).isFalse();
+        assertThat(limiter.tryConsume("user-b", 1, 2).block().isAllowed()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisModeUsesScriptResult() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(0L, 0L, 300L)));
+        TokenBucketRateLimiter limiter = redisLimiter(redisTemplate);
+
+        TokenBucketRateLimiter.Result result = limiter.tryConsume("user", 1, 5).block();
+
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getRetryAfterMillis()).isEqualTo(300);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisFailureFallsBackToLocalBucket() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+        TokenBucketRateLimiter limiter = redisLimiter(redisTemplate);
+
+        // 요청을 막지 않고 local 버킷 한도로 판단
+        drain(limiter, "user", 1, 3);
+        assertThat(limiter.tryConsume("user", 1, 3).block().isAllowed()).isFalse();
+
+        advance(1000);
+        assertThat(limiter.tryConsume("user", 1, 3).block().isAllowed()).isTrue();
+    }
+
+    @Test
+    void redisModeWithoutTemplateUsesLocalBucket() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(
+                new DefaultListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                "redis", 100, Duration.ofMinutes(10), now::get);
+
+        drain(limiter, "user", 1, 2);
+        assertThat(limiter.tryConsume("user", 1, 2).block().isAllowed()).isFalse();
+    }
+
+    private TokenBucketRateLimiter localLimiter() {
+        return new TokenBucketRateLimiter(
+                new DefaultListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                "local", 100, Duration.ofMinutes(10), now::get);
+    }
+
+    private TokenBucketRateLimiter redisLimiter(ReactiveStringRedisTemplate redisTemplate) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("reactiveStringRedisTemplate", redisTemplate);
+        ObjectProvider<ReactiveStringRedisTemplate> provider =
+                beanFactory.getBeanProvider(ReactiveStringRedisTemplate.class);
+        return new TokenBucketRateLimiter(provider, "redis", 100, Duration.ofMinutes(10), now::get);
+    }
+
+    private void drain(TokenBucketRateLimiter limiter, String key, int rate, int capacity) {
+        for (int i = 0; i < capacity; i++) {
+            assertThat(limiter.tryConsume(key, rate, capacity).block().isAllowed()).isTrue();
+        }
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
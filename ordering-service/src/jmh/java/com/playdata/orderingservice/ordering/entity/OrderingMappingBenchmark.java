@@ -0,0 +1,59 @@
+package com.playdata.orderingservice.ordering.entity;
+
+import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 주문 내역 응답 변환 (Ordering.fromEntity, OrderDetail.fromEntity) 성능 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderingMappingBenchmark {
+
+    // 주문 한 건에 포함된 상품 수
+    @Param({"1", "10", "50"})
+    private int detailCount;
+
+    private Ordering ordering;
+    private OrderDetail orderDetail;
+    private Map<Long, String> productNames;
+
+    @Setup
+    public void setUp() {
+        List<OrderDetail> details = new ArrayList<>();
+        productNames = new HashMap<>();
+        ordering = Ordering.builder()
+                .id(1L)
+                .userId(1L)
+                .userEmail("user@example.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .orderDetails(details)
+                .build();
+
+        for (long i = 1; i <= detailCount; i++) {
+            details.add(OrderDetail.builder()
+                    .id(i)
+                    .productId(i)
+                    .quantity((int) i)
+                    .ordering(ordering)
+                    .build());
+            productNames.put(i, "상품 " + i);
+        }
+        orderDetail = details.get(0);
+    }
+
+    @Benchmark
+    public OrderingListResDto orderingFromEntity() {
+        return ordering.fromEntity("user@example.com", productNames);
+    }
+
+    @Benchmark
+    public OrderingListResDto.OrderDetailDto orderDetailFromEntity() {
+        return orderDetail.fromEntity(productNames);
+    }
+}
@@ -1,9 +1,11 @@
 package com.playdata.orderingservice.client;
 
 import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.ProductLookupResDTO;
 import com.playdata.orderingservice.ordering.dto.ProductResDTO;
+import com.playdata.orderingservice.ordering.dto.ProductStockReqDTO;
+import com.playdata.orderingservice.ordering.dto.ProductStockResDTO;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,9 +16,18 @@ public interface ProductServiceClient {
     @GetMapping("/product/{prodId}")
     CommonResDto<ProductResDTO> findById(@PathVariable Long prodId);
 
-    @PutMapping("/product/updateQuantity")
-    ResponseEntity<?> updateQuantity(@RequestBody ProductResDTO productResDTO);
+    // 주문 한 건의 모든 상품 재고를 한번의 요청으로 확인 및 차감
+    // 같은 reservationKey로 다시 요청하면 재고를 또 차감하지 않고 이전 결과를 돌려받는다.
+    @PostMapping("/product/reserveStock")
+    CommonResDto<List<ProductStockResDTO>> reserveStock(
+            @RequestParam("reservationKey") String reservationKey,
+            @RequestBody List<ProductStockReqDTO> reqList);
 
     @PostMapping("/product/products")
     CommonResDto<List<ProductResDTO>> getProducts(@RequestBody List<Long> productIds);
+
+    // 필요한 필드만 골라서 일괄 조회 (fields: 쉼표로 구분한 필드 이름, ex) "name,price")
+    @PostMapping("/product/lookup")
+    CommonResDto<ProductLookupResDTO> lookup(@RequestParam("fields") String fields,
+                                             @RequestBody List<Long> productIds);
 }
@@ -29,7 +29,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // 게이트웨이가 토큰 내에 클레임을 헤더에 담아서 보내준다.
         String userEmail = request.getHeader("X-User-Email");
         String userRole = request.getHeader("X-User-Role");
-        log.info("userEmail: {}, userRole: {}", userEmail, userRole);
+        String userId = request.getHeader("X-User-Id");
+        log.info("userEmail: {}, userRole: {}, userId: {}", userEmail, userRole, userId);
 
         if (userEmail != null && userRole != null) {
             // spring security에게 전달할 인가 정보 리스트를 생성. (권한 정보)
@@ -43,7 +44,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             // 인증 완료 처리
             // 위에서 준비한 여러가지 사용자 정보, 인가정보 리스트를 하나의 객체로 포장
             Authentication auth = new UsernamePasswordAuthenticationToken(
-                    new TokenUserInfo(userEmail, Role.valueOf(userRole)), // 컨트롤러 등에서 활용할 유저 정보
+                    new TokenUserInfo(userEmail, Role.valueOf(userRole), parseUserId(userId)), // 컨트롤러 등에서 활용할 유저 정보
                     "", // 인증된 사용자의 비밀번호: 보통 null 혹은 빈 문자열로 선언
                     authorityList // 인가 정보 (권한)
             );
@@ -59,4 +60,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // 게이트웨이가 보내준 회원 id (id 클레임이 없는 이전 토큰이면 null)
+    private Long parseUserId(String userId) {
+        if (userId == null || userId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 X-User-Id 헤더: {}", userId);
+            return null;
+        }
+    }
+
 }
@@ -10,5 +10,6 @@ public class TokenUserInfo {
 
     private String email;
     private Role role;
+    private Long id; // 이전에 발급된 토큰에는 id가 없어서 null일 수 있다.
 
 }
@@ -0,0 +1,33 @@
+package com.playdata.orderingservice.common.configs;
+
+import com.playdata.orderingservice.common.sql.SqlProfiler;
+import com.playdata.orderingservice.common.sql.SqlProfilingProxy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// 애플리케이션의 DataSource를 SQL 실행 시간 측정용 프록시로 감싼다. (SqlProfiler)
+@Configuration
+public class SqlProfilerConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 등록하고,
+    // SqlProfiler(MeterRegistry 필요)는 DataSource를 감쌀 때 꺼낸다.
+    @Bean
+    public static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    SqlProfiler profiler = sqlProfiler.getObject();
+                    if (profiler.isEnabled()) {
+                        return SqlProfilingProxy.wrap(dataSource, profiler);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,12 +1,21 @@
 package com.playdata.orderingservice.common.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+
+    // 스트리밍 응답(주문 내보내기 등)이 끝날 때까지 기다려 주는 최대 시간
+    @Value("${order.export.timeout:30m}")
+    private Duration asyncTimeout;
 
     // 타 서버로 요청 보낼 수 있게 도와주는 도구.
     @Bean
@@ -15,4 +24,9 @@ public class WebConfig {
         return new RestTemplate();
     }
 
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+
 }
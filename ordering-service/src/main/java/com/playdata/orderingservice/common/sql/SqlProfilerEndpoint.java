@@ -0,0 +1,64 @@
+package com.playdata.orderingservice.common.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ SQL 프로파일러 조회/설정 (/actuator/sqlprofiler, ADMIN 권한 필요 -> SecurityConfig)
+
+ GET    : 현재 설정, 최근 느린 쿼리, 최근 샘플 쿼리
+ POST   : 설정 변경 ex) {"sampleRate": 0.1, "slowThresholdMillis": 100, "captureParameters": false}
+ DELETE : 쌓아 둔 느린 쿼리/샘플 비우기
+
+ 쿼리 형태별 실행 시간은 /actuator/metrics/sql.query 에서 확인한다.
+ management.endpoints.web.exposure.include에 sqlprofiler를 추가해야 노출된다.
+ */
+@Component
+@Endpoint(id = "sqlprofiler")
+@RequiredArgsConstructor
+public class SqlProfilerEndpoint {
+
+    private final SqlProfiler sqlProfiler;
+
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> result = settings();
+        result.put("slowQueries", sqlProfiler.getSlowQueries());
+        result.put("samples", sqlProfiler.getSamples());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Double sampleRate,
+                                         @Nullable Long slowThresholdMillis,
+                                         @Nullable Boolean captureParameters) {
+        sqlProfiler.configure(sampleRate,
+                slowThresholdMillis != null ? Duration.ofMillis(slowThresholdMillis) : null,
+                captureParameters);
+        return settings();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        sqlProfiler.clear();
+    }
+
+    private Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", sqlProfiler.isEnabled());
+        settings.put("sampleRate", sqlProfiler.getSampleRate());
+        settings.put("slowThresholdMillis", sqlProfiler.getSlowThreshold().toMillis());
+        settings.put("captureParameters", sqlProfiler.isCaptureParameters());
+        settings.put("shapes", sqlProfiler.getShapeCount());
+        return settings;
+    }
+}
@@ -2,17 +2,24 @@ package com.playdata.orderingservice.ordering.controller;
 
 import com.playdata.orderingservice.common.auth.TokenUserInfo;
 import com.playdata.orderingservice.common.dto.CommonResDto;
-import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.OrderSearchDto;
+import com.playdata.orderingservice.ordering.dto.OrderingPageResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.service.OrderExportService;
 import com.playdata.orderingservice.ordering.service.OrderingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -22,6 +29,7 @@ import java.util.List;
 public class OrderingController {
 
     private final OrderingService orderingService;
+    private final OrderExportService orderExportService;
 
     @PostMapping("/create")
     public ResponseEntity<CommonResDto> createOrder(
@@ -35,21 +43,65 @@ public class OrderingController {
 
         Ordering ordering = orderingService.createOrder(dtoList, userInfo);
 
-        CommonResDto resDTO = new CommonResDto(HttpStatus.CREATED, "정상 주문 완료", ordering.getId());
+        // 주문은 접수만 된 상태 (재고 차감과 주문 확정은 뒤에서 처리됩니다.)
+        CommonResDto resDTO = new CommonResDto(HttpStatus.ACCEPTED, "주문 접수 완료", ordering.getId());
 
-        return new ResponseEntity<>(resDTO, HttpStatus.CREATED);
+        return new ResponseEntity<>(resDTO, HttpStatus.ACCEPTED);
     }
 
     // 내 주문만 볼 수 있는 MyOrders
+    // 최신 주문부터 size개씩 조회, 다음 페이지는 응답의 nextCursor를 cursor로 전달
     @GetMapping("/my-order")
     public ResponseEntity<?> myOrder(
-            @AuthenticationPrincipal TokenUserInfo userInfo) {
-        List<OrderingListResDto> dtos = orderingService.myOrder(userInfo);
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        OrderingPageResDto page = orderingService.myOrder(userInfo, cursor, size);
 
-        CommonResDto<List<OrderingListResDto>> resDto = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", dtos);
+        CommonResDto<OrderingPageResDto> resDto = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", page);
 
         return ResponseEntity.ok().body(resDto);
     }
 
     // 전체 회원의 주문 조회 (ADMIN 전용)
+    // 상태, 주문 시각 범위로 필터링 가능. 최신 주문부터 size개씩, 다음 페이지는 nextCursor를 cursor로 전달
+    // ex) /order/list?status=ORDERED&from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&size=50
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/list")
+    public ResponseEntity<?> orderList(
+            OrderSearchDto searchDto,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("/order/list: GET, searchDto: {}, cursor: {}, size: {}", searchDto, cursor, size);
+        OrderingPageResDto page = orderingService.allOrders(searchDto, cursor, size);
+
+        CommonResDto<OrderingPageResDto> resDto = new CommonResDto<>(HttpStatus.OK, "전체 주문 조회 완료", page);
+        return ResponseEntity.ok().body(resDto);
+    }
+
+    // 전체 회원의 주문 내보내기 (ADMIN 전용)
+    // 조건에 맞는 주문 전체를 DB에서 읽는 대로 바로 응답에 써서 보낸다. (format: ndjson 또는 csv)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            OrderSearchDto searchDto,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("/order/export: GET, searchDto: {}, format: {}", searchDto, format);
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("지원하지 않는 형식입니다: " + format);
+        }
+
+        StreamingResponseBody body = csv
+                ? out -> orderExportService.exportCsv(searchDto, out)
+                : out -> orderExportService.exportNdjson(searchDto, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,25 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// 전체 주문 조회/내보내기 조건 (관리자용), 값이 없는 조건은 적용하지 않는다.
+@Setter @Getter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchDto {
+
+    private OrderStatus status;
+
+    // 주문 시각 범위 (from 이상, to 미만) ex) 2024-01-01T00:00:00
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+}
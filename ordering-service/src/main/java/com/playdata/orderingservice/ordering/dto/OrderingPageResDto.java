@@ -0,0 +1,20 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 내 주문 목록 한 페이지 (keyset 페이징)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderingPageResDto {
+
+    private List<OrderingListResDto> orders;
+    private Long nextCursor; // 다음 페이지 요청 시 cursor로 전달할 값 (마지막 페이지면 null)
+    private boolean hasNext;
+
+}
@@ -0,0 +1,16 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// product-service 상품 일괄 조회(/product/lookup) 응답
+// ex) {"fields": ["id", "name"], "rows": [[1, "키보드"], [2, "마우스"]]}
+@Data
+@NoArgsConstructor
+public class ProductLookupResDTO {
+
+    private List<String> fields; // rows의 각 값이 어떤 필드인지 (첫 번째는 항상 id)
+    private List<List<Object>> rows;
+}
@@ -0,0 +1,15 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+// product-service에게 재고 차감을 요청할 상품 id와 수량 한 줄
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockReqDTO {
+
+    private Long productId;
+    private int quantity;
+
+}
@@ -0,0 +1,17 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+// product-service가 돌려주는 재고 차감 결과 한 줄
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockResDTO {
+
+    private Long productId;
+    private int quantity;
+    private int stockQuantity;
+    private boolean success;
+
+}
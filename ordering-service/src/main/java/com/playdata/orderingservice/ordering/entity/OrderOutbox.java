@@ -0,0 +1,49 @@
+package com.playdata.orderingservice.ordering.entity;
+
+import com.playdata.orderingservice.common.entity.BaseTimeEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ 주문 이벤트 아웃박스 (Transactional Outbox)
+ 주문 저장과 같은 트랜잭션에서 이벤트를 함께 저장해 두고,
+ 타 서비스 호출(재고 차감 등)은 트랜잭션이 끝난 뒤 디스패처가 따로 처리한다.
+ -> 주문 저장에 성공했다면 이벤트도 반드시 남아 있다.
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_order_outbox",
+        indexes = @Index(name = "idx_order_outbox_status_id", columnList = "status, id"))
+public class OrderOutbox extends BaseTimeEntity {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long orderingId;
+
+    private String eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Setter
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    // 주문 접수 이벤트 생성
+    public static OrderOutbox orderCreated(Ordering ordering) {
+        return OrderOutbox.builder()
+                .orderingId(ordering.getId())
+                .eventType(ORDER_CREATED)
+                .payload(ordering.getOriginalRequestJson())
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.playdata.orderingservice.ordering.entity;
 
 public enum OrderStatus {
-    ORDERED,
+    PENDING, // 주문 접수 (재고 차감 전)
+    ORDERED, // 재고 차감까지 완료된 주문
+    FAILED, // 타 서비스 장애로 처리하지 못한 주문 (재처리 대상, next_retry_at이 없으면 수동 처리 대상)
     CANCELED
 }
@@ -1,9 +1,11 @@
 package com.playdata.orderingservice.ordering.entity;
 
+import com.playdata.orderingservice.common.entity.BaseTimeEntity;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +16,11 @@ import java.util.Map;
 @AllArgsConstructor
 @Builder
 @Entity
-public class Ordering {
+@Table(indexes = {
+        @Index(name = "idx_ordering_status_next_retry", columnList = "order_status, next_retry_at"),
+        @Index(name = "idx_ordering_user_id_id", columnList = "user_id, id") // 내 주문 목록 keyset 페이징
+})
+public class Ordering extends BaseTimeEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,9 +46,19 @@ public class Ordering {
     @Setter
     private String originalRequestJson;
 
+    // 주문은 접수(PENDING) 상태로 저장된 후, 재고 차감이 끝나면 ORDERED로 변경된다.
     @Enumerated(EnumType.STRING)
     @Builder.Default
-    private OrderStatus orderStatus = OrderStatus.ORDERED;
+    @Setter
+    private OrderStatus orderStatus = OrderStatus.PENDING;
+
+    // 재처리 정보 (타 서비스 장애로 처리하지 못한 주문을 다시 시도할 때 사용)
+    @Builder.Default
+    @Setter
+    private int retryCount = 0;
+
+    @Setter
+    private LocalDateTime nextRetryAt; // 이 시각이 지나면 재처리 대상
 
     @OneToMany(mappedBy = "ordering", cascade = CascadeType.PERSIST)
     private List<OrderDetail> orderDetails;
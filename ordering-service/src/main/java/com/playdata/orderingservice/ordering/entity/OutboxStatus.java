@@ -0,0 +1,6 @@
+package com.playdata.orderingservice.ordering.entity;
+
+public enum OutboxStatus {
+    PENDING, // 아직 처리되지 않은 이벤트
+    DISPATCHED // 처리기에 전달된 이벤트
+}
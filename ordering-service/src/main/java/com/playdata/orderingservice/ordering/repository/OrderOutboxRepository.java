@@ -0,0 +1,33 @@
+package com.playdata.orderingservice.ordering.repository;
+
+import com.playdata.orderingservice.ordering.entity.OrderOutbox;
+import com.playdata.orderingservice.ordering.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    // 처리할 이벤트를 오래된 순으로 limit 개수만큼 잠그면서 조회
+    // lock.timeout = -2 -> SELECT ... FOR UPDATE SKIP LOCKED
+    // 다른 서버가 이미 잠근 row는 건너뛰기 때문에 여러 서버가 같은 이벤트를 중복 처리하지 않는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OrderOutbox> findByStatusOrderByIdAsc(OutboxStatus status, Limit limit);
+
+    // 처리가 끝난(DISPATCHED) 오래된 이벤트를 limit개씩 삭제 (한번에 지우면 잠금이 오래 걸리므로 나눠서)
+    @Modifying
+    @Query(value = "DELETE FROM tbl_order_outbox " +
+            "WHERE status = 'DISPATCHED' AND create_time < :before " +
+            "LIMIT :limit", nativeQuery = true)
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,11 +1,72 @@
 package com.playdata.orderingservice.ordering.repository;
 
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderingRepository extends JpaRepository<Ordering, Long> {
-    List<Ordering> findByUserId(Long userId);
+
+    // 내 주문 목록 (keyset 페이징) 1단계: cursor보다 작은 주문 id를 최신순으로 limit개만 조회
+    // (user_id, id) 인덱스만 읽고 끝나기 때문에 주문이 아무리 많아도 페이지 크기만큼만 읽는다.
+    @Query("SELECT o.id FROM Ordering o WHERE o.userId = :userId AND o.id < :cursor ORDER BY o.id DESC")
+    List<Long> findIdsByUserIdBefore(@Param("userId") Long userId,
+                                     @Param("cursor") Long cursor,
+                                     Limit limit);
+
+    // 전체 주문 목록 (관리자용 keyset 페이징) 조건이 null이면 해당 조건은 무시
+    @Query("SELECT o.id FROM Ordering o " +
+            "WHERE o.id < :cursor " +
+            "AND (:status IS NULL OR o.orderStatus = :status) " +
+            "AND (:from IS NULL OR o.createTime >= :from) " +
+            "AND (:to IS NULL OR o.createTime < :to) " +
+            "ORDER BY o.id DESC")
+    List<Long> findIdsBefore(@Param("cursor") Long cursor,
+                             @Param("status") OrderStatus status,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             Limit limit);
+
+    // 내 주문 목록 2단계: 해당 페이지의 주문과 주문 상세를 한번의 쿼리로 조회 (N+1 방지)
+    // fetch join과 limit을 함께 쓰면 메모리에서 페이징되므로, id 목록을 먼저 구한 뒤 IN으로 조회한다.
+    @Query("SELECT o FROM Ordering o LEFT JOIN FETCH o.orderDetails WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Ordering> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 주문과 주문 상세를 한번에 조회 (재고 차감 요청을 만들 때 사용)
+    @Query("SELECT o FROM Ordering o LEFT JOIN FETCH o.orderDetails WHERE o.id = :id")
+    Optional<Ordering> findWithDetailsById(@Param("id") Long id);
+
+    // 주문 상태를 바꾸기 전에 잠그고 조회 (디스패처와 재처리 스케줄러가 같은 주문을 동시에 처리한 경우 한쪽만 반영)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Ordering o WHERE o.id = :id")
+    Optional<Ordering> findByIdForUpdate(@Param("id") Long id);
+
+    // 재처리 대상 주문(PENDING으로 오래 남아있거나 FAILED)을 limit 개수만큼 잠그면서 조회
+    // FOR UPDATE SKIP LOCKED -> 다른 서버가 잠근 주문은 건너뛴다. (여러 서버가 같은 주문을 중복 처리하지 않음)
+    // MOD(id, shardCount) -> 서버마다 담당할 주문을 나누고 싶을 때 사용 (shardCount = 1이면 전체)
+    @Query(value = "SELECT * FROM ordering " +
+            "WHERE order_status IN ('PENDING', 'FAILED') " +
+            "AND next_retry_at <= :now " +
+            "AND MOD(id, :shardCount) = :shardIndex " +
+            "ORDER BY next_retry_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Ordering> findRetryTargetsForUpdate(@Param("now") LocalDateTime now,
+                                             @Param("shardCount") int shardCount,
+                                             @Param("shardIndex") int shardIndex,
+                                             @Param("limit") int limit);
+
+    long countByOrderStatusIn(Collection<OrderStatus> statuses);
+
+    @Query("SELECT MIN(o.createTime) FROM Ordering o WHERE o.orderStatus IN :statuses")
+    Optional<LocalDateTime> findOldestCreateTime(@Param("statuses") Collection<OrderStatus> statuses);
 }
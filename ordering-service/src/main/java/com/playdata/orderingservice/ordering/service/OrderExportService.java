@@ -0,0 +1,183 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderSearchDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ 전체 주문 내보내기 (관리자용)
+
+ 주문을 List로 모아서 응답하지 않고, DB에서 한 행씩 읽는 즉시 응답 스트림에 쓴다.
+ MySQL 드라이버는 fetchSize = Integer.MIN_VALUE일 때 결과를 한번에 받지 않고 스트리밍하므로
+ 주문이 1만 건이든 1천만 건이든 서버 메모리 사용량은 일정하다.
+
+ - NDJSON: 한 줄에 주문 하나 (주문 상세는 details 배열)
+ - CSV: 한 줄에 주문 상세 하나 (주문 정보는 반복)
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.user_id, o.user_email, o.order_status, o.create_time,
+                   d.product_id, d.quantity
+            FROM ordering o
+            LEFT JOIN order_detail d ON d.ordering_id = o.id
+            WHERE (? IS NULL OR o.order_status = ?)
+              AND (? IS NULL OR o.create_time >= ?)
+              AND (? IS NULL OR o.create_time < ?)
+            ORDER BY o.id
+            """;
+
+    private static final String CSV_HEADER = "ordering_id,user_id,user_email,order_status,create_time,product_id,quantity";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // 내보내기 전용 JdbcTemplate (MySQL 스트리밍 결과 조회)
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void exportNdjson(OrderSearchDto searchDto, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+
+        // 같은 주문의 상세 행들은 연속으로 나오므로(ORDER BY o.id), 주문이 바뀔 때마다 한 줄씩 쓴다.
+        OrderRow[] current = new OrderRow[1];
+        query(searchDto, rs -> {
+            long orderingId = rs.getLong("id");
+            if (current[0] == null || current[0].id != orderingId) {
+                writeNdjsonLine(generator, current[0]);
+                current[0] = OrderRow.from(rs);
+            }
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                current[0].details.add(new long[]{productId, rs.getInt("quantity")});
+            }
+        });
+        writeNdjsonLine(generator, current[0]);
+        generator.flush();
+    }
+
+    public void exportCsv(OrderSearchDto searchDto, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        query(searchDto, rs -> {
+            try {
+                OrderRow row = OrderRow.from(rs);
+                writer.write(row.id + "," + nullToEmpty(row.userId) + "," + csv(row.userEmail) + ","
+                        + nullToEmpty(row.orderStatus) + "," + nullToEmpty(row.createTime) + ","
+                        + nullToEmpty(rs.getObject("product_id")) + "," + nullToEmpty(rs.getObject("quantity")));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void query(OrderSearchDto searchDto, RowCallbackHandler handler) {
+        String status = searchDto.getStatus() != null ? searchDto.getStatus().name() : null;
+        Timestamp from = searchDto.getFrom() != null ? Timestamp.valueOf(searchDto.getFrom()) : null;
+        Timestamp to = searchDto.getTo() != null ? Timestamp.valueOf(searchDto.getTo()) : null;
+
+        streamingJdbcTemplate.query(EXPORT_SQL, handler, status, status, from, from, to, to);
+    }
+
+    private void writeNdjsonLine(JsonGenerator generator, OrderRow row) {
+        if (row == null) {
+            return;
+        }
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.id);
+            if (row.userId != null) {
+                generator.writeNumberField("userId", row.userId);
+            } else {
+                generator.writeNullField("userId");
+            }
+            generator.writeStringField("userEmail", row.userEmail);
+            generator.writeStringField("orderStatus", row.orderStatus);
+            generator.writeStringField("createTime", row.createTime);
+            generator.writeArrayFieldStart("details");
+            for (long[] detail : row.details) {
+                generator.writeStartObject();
+                generator.writeNumberField("productId", detail[0]);
+                generator.writeNumberField("quantity", detail[1]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우 등 -> 조회를 중단
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // 내보내는 중인 주문 한 건 (NDJSON은 상세를 모두 모은 뒤 한 줄로 쓴다)
+    private static class OrderRow {
+        private final long id;
+        private final Long userId;
+        private final String userEmail;
+        private final String orderStatus;
+        private final String createTime;
+        private final List<long[]> details = new ArrayList<>();
+
+        private OrderRow(long id, Long userId, String userEmail, String orderStatus, String createTime) {
+            this.id = id;
+            this.userId = userId;
+            this.userEmail = userEmail;
+            this.orderStatus = orderStatus;
+            this.createTime = createTime;
+        }
+
+        private static OrderRow from(ResultSet rs) throws SQLException {
+            Timestamp createTime = rs.getTimestamp("create_time");
+            return new OrderRow(
+                    rs.getLong("id"),
+                    rs.getObject("user_id", Long.class),
+                    rs.getString("user_email"),
+                    rs.getString("order_status"),
+                    createTime != null ? createTime.toLocalDateTime().toString() : null);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderOutbox;
+import com.playdata.orderingservice.ordering.entity.OutboxStatus;
+import com.playdata.orderingservice.ordering.repository.OrderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 아웃박스에 쌓인 주문 이벤트를 일정 개수씩 꺼내서 처리하는 객체
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderOutboxDispatcher {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderProcessor orderProcessor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+
+    // DISPATCHED 이벤트를 보관하는 기간 (이후 삭제해서 테이블이 계속 커지지 않도록)
+    @Value("${order.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${order.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Scheduled(fixedDelayString = "${order.outbox.dispatch-interval:500}")
+    public void dispatch() {
+        // 처리할 이벤트를 잠그고 꺼낸 뒤 바로 DISPATCHED로 표시해서 커밋
+        // -> 다른 서버가 같은 이벤트를 다시 가져가지 않는다.
+        List<Long> orderingIds = transactionTemplate.execute(status -> {
+            List<OrderOutbox> events = orderOutboxRepository
+                    .findByStatusOrderByIdAsc(OutboxStatus.PENDING, Limit.of(batchSize));
+            events.forEach(event -> event.setStatus(OutboxStatus.DISPATCHED));
+            return events.stream().map(OrderOutbox::getOrderingId).toList();
+        });
+
+        if (orderingIds == null || orderingIds.isEmpty()) {
+            return;
+        }
+        log.info("주문 이벤트 {}건 처리 시작", orderingIds.size());
+
+        // 타 서비스 호출은 트랜잭션이 끝난 후에 주문 단위로 진행
+        for (Long orderingId : orderingIds) {
+            try {
+                orderProcessor.process(orderingId);
+            } catch (Exception e) {
+                log.error("주문 이벤트 처리 실패! orderingId: {}, 오류: {}", orderingId, e.getMessage());
+            }
+        }
+    }
+
+    // 보관 기간이 지난 DISPATCHED 이벤트 삭제 (여러 서버가 동시에 실행해도 지울 row가 나뉠 뿐 결과는 같다)
+    @Scheduled(fixedDelayString = "${order.outbox.purge-interval:3600000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    orderOutboxRepository.deleteDispatchedBefore(before, purgeBatchSize));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("처리가 끝난 주문 이벤트 {}건 삭제", total);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.ProductStockReqDTO;
+import com.playdata.orderingservice.ordering.dto.ProductStockResDTO;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 접수(PENDING)된 주문의 재고를 차감하고 주문 상태를 확정하는 객체
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderProcessor {
+
+    private final OrderingRepository orderingRepository;
+    private final ProductServiceClient productServiceClient;
+    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    // 재처리 간격: base-delay * 2^(재시도 횟수 - 1), 최대 max-delay
+    @Value("${order.retry.base-delay:5s}")
+    private Duration baseDelay;
+
+    @Value("${order.retry.max-delay:10m}")
+    private Duration maxDelay;
+
+    // 이 횟수만큼 실패하면 더 이상 자동으로 재처리하지 않고 수동 처리 대상으로 남겨둔다.
+    @Value("${order.retry.max-attempts:10}")
+    private int maxAttempts;
+
+    /**
+     * 주문 한 건의 재고 차감을 요청하고 결과에 따라 주문 상태를 변경
+     * product-service를 호출하는 동안에는 DB 트랜잭션(커넥션)을 잡고 있지 않는다.
+     *
+     * @param orderingId - 처리할 주문 id
+     * @return - 처리 후 주문 상태 (이미 처리된 주문이라면 null)
+     */
+    public OrderStatus process(Long orderingId) {
+        // 1. 짧은 트랜잭션으로 주문 상세를 읽어서 재고 차감 요청을 만든다.
+        List<ProductStockReqDTO> stockReqList = transactionTemplate.execute(status ->
+                orderingRepository.findWithDetailsById(orderingId)
+                        .filter(ordering -> ordering.getOrderStatus() == OrderStatus.PENDING
+                                || ordering.getOrderStatus() == OrderStatus.FAILED)
+                        .map(ordering -> ordering.getOrderDetails().stream()
+                                .map(detail -> new ProductStockReqDTO(detail.getProductId(), detail.getQuantity()))
+                                .toList())
+                        .orElse(null));
+
+        if (stockReqList == null) {
+            log.info("이미 처리된 주문입니다. orderingId: {}", orderingId);
+            return null;
+        }
+
+        // 2. 트랜잭션 밖에서 product-service에게 재고 차감 요청
+        OrderStatus result = reserveStock(orderingId, stockReqList);
+
+        // 3. 짧은 트랜잭션으로 주문 상태 변경 (row를 잠그고 아직 처리 전인 주문일 때만)
+        OrderStatus finalStatus = transactionTemplate.execute(status ->
+                orderingRepository.findByIdForUpdate(orderingId)
+                        .map(ordering -> applyResult(ordering, result))
+                        .orElse(null));
+
+        log.info("주문 처리 완료. orderingId: {}, status: {}", orderingId, finalStatus);
+        return finalStatus;
+    }
+
+    // 처리 결과를 주문에 반영. 실패했다면 지수적으로 늘어나는 간격 뒤에 다시 처리하도록 예약
+    // 그 사이 다른 처리기가 이미 확정(ORDERED, CANCELED)한 주문이라면 바꾸지 않고 null 리턴
+    // -> 늦게 도착한 FAILED가 ORDERED를 덮어쓰지 않는다.
+    private OrderStatus applyResult(Ordering ordering, OrderStatus result) {
+        if (ordering.getOrderStatus() != OrderStatus.PENDING && ordering.getOrderStatus() != OrderStatus.FAILED) {
+            log.info("이미 처리된 주문이라 결과를 반영하지 않습니다. orderingId: {}, status: {}, result: {}",
+                    ordering.getId(), ordering.getOrderStatus(), result);
+            return null;
+        }
+
+        if (result != OrderStatus.FAILED) {
+            ordering.setOrderStatus(result);
+            ordering.setNextRetryAt(null);
+            return result;
+        }
+
+        int retryCount = ordering.getRetryCount() + 1;
+        ordering.setRetryCount(retryCount);
+
+        // 응답을 받지 못했을 뿐 product-service는 이미 재고를 차감했을 수도 있다. (예: 읽기 타임아웃)
+        // 여기서 취소하면 차감된 재고가 돌아오지 않으므로 FAILED로 두고 자동 재처리만 멈춘다.
+        // (next_retry_at이 null이면 재처리 대상 조회에서 빠진다.)
+        // 같은 reservationKey로 다시 요청하면 차감된 결과를 그대로 돌려받으므로 수동으로 재처리하면 된다.
+        if (retryCount >= maxAttempts) {
+            log.error("재처리 횟수 초과! 수동 확인이 필요합니다. orderingId: {}, retryCount: {}, reservationKey: {}",
+                    ordering.getId(), retryCount, reservationKey(ordering.getId()));
+            ordering.setOrderStatus(OrderStatus.FAILED);
+            ordering.setNextRetryAt(null);
+            return OrderStatus.FAILED;
+        }
+
+        ordering.setOrderStatus(OrderStatus.FAILED);
+        ordering.setNextRetryAt(LocalDateTime.now().plus(backoff(retryCount)));
+        return OrderStatus.FAILED;
+    }
+
+    private Duration backoff(int retryCount) {
+        // 2^20배를 넘으면 어차피 max-delay보다 크므로 시프트 범위를 제한
+        Duration delay = baseDelay.multipliedBy(1L << Math.min(retryCount - 1, 20));
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private OrderStatus reserveStock(Long orderingId, List<ProductStockReqDTO> stockReqList) {
+        CircuitBreaker productCircuit = circuitBreakerFactory.create("productService");
+
+        try {
+            CommonResDto<List<ProductStockResDTO>> reserved
+                    = productCircuit.run(() -> productServiceClient.reserveStock(
+                    reservationKey(orderingId), stockReqList));
+
+            // 하나라도 재고가 부족하면 product-service는 아무것도 차감하지 않습니다.
+            boolean allReserved = reserved.getResult().stream()
+                    .allMatch(ProductStockResDTO::isSuccess);
+            return allReserved ? OrderStatus.ORDERED : OrderStatus.CANCELED;
+        } catch (Exception e) {
+            // product-service 장애 -> 주문은 그대로 두고 재처리 대상으로 표시
+            log.error("재고 차감 요청 실패! orderingId: {}, 오류: {}", orderingId, e.getMessage());
+            return OrderStatus.FAILED;
+        }
+    }
+
+    // 같은 주문을 여러 번 재처리해도 재고는 한번만 차감되도록 product-service에 전달하는 키
+    private String reservationKey(Long orderingId) {
+        return "ordering-" + orderingId;
+    }
+}
@@ -1,4 +1,116 @@
 package com.playdata.orderingservice.ordering.service;
 
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ 처리되지 못한 주문(FAILED, 오래 남아있는 PENDING)을 주기적으로 다시 처리하는 객체
+
+ 1. 짧은 트랜잭션에서 재처리 대상을 batch-size만큼 FOR UPDATE SKIP LOCKED로 잠그고,
+    next_retry_at을 lease만큼 미뤄둔 뒤 커밋 -> 처리하는 동안 다른 서버가 같은 주문을 가져가지 않는다.
+ 2. 트랜잭션 밖에서 OrderProcessor로 재고 차감을 다시 요청
+ 3. 또 실패하면 OrderProcessor가 지수적으로 늘어나는 간격으로 다음 재처리 시각을 잡아준다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
 public class OrderRetryScheduler {
+
+    private static final List<OrderStatus> RETRY_STATUSES = List.of(OrderStatus.PENDING, OrderStatus.FAILED);
+
+    private final OrderingRepository orderingRepository;
+    private final OrderProcessor orderProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order.retry.batch-size:50}")
+    private int batchSize;
+
+    // 재처리 중인 주문을 다른 서버가 가져가지 않도록 next_retry_at을 미뤄두는 시간
+    @Value("${order.retry.lease:2m}")
+    private Duration lease;
+
+    // 서버마다 담당할 주문을 나누고 싶을 때 사용 (기본값은 모든 서버가 전체 주문을 나눠서 처리)
+    @Value("${order.retry.shard-count:1}")
+    private int shardCount;
+
+    @Value("${order.retry.shard-index:0}")
+    private int shardIndex;
+
+    // actuator(/actuator/metrics)로 확인할 수 있는 지표
+    private final AtomicLong queueDepth = new AtomicLong(); // 재처리 대기 중인 주문 수
+    private final AtomicLong oldestAgeSeconds = new AtomicLong(); // 가장 오래 대기 중인 주문의 대기 시간(초)
+
+    @PostConstruct
+    private void registerMetrics() {
+        Gauge.builder("order.retry.queue.depth", queueDepth, AtomicLong::get)
+                .description("재처리 대기 중인 주문 수 (PENDING + FAILED)")
+                .register(meterRegistry);
+        Gauge.builder("order.retry.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("가장 오래 처리되지 못한 주문의 대기 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.retry.interval:5000}")
+    public void retry() {
+        LocalDateTime now = LocalDateTime.now();
+        updateQueueMetrics(now);
+
+        List<Long> claimedIds = transactionTemplate.execute(status -> {
+            List<Ordering> targets = orderingRepository.findRetryTargetsForUpdate(
+                    now, shardCount, shardIndex, batchSize);
+            targets.forEach(ordering -> ordering.setNextRetryAt(now.plus(lease)));
+            return targets.stream().map(Ordering::getId).toList();
+        });
+
+        if (claimedIds == null || claimedIds.isEmpty()) {
+            return;
+        }
+        log.info("주문 재처리 시작: {}건", claimedIds.size());
+
+        for (Long orderingId : claimedIds) {
+            try {
+                OrderStatus result = orderProcessor.process(orderingId);
+                if (result != null) {
+                    processedCounter(result).increment();
+                }
+            } catch (Exception e) {
+                // 예상하지 못한 오류 -> lease가 끝나면 다시 재처리 대상이 된다.
+                log.error("주문 재처리 실패! orderingId: {}, 오류: {}", orderingId, e.getMessage());
+                processedCounter(OrderStatus.FAILED).increment();
+            }
+        }
+    }
+
+    private void updateQueueMetrics(LocalDateTime now) {
+        queueDepth.set(orderingRepository.countByOrderStatusIn(RETRY_STATUSES));
+        oldestAgeSeconds.set(orderingRepository.findOldestCreateTime(RETRY_STATUSES)
+                .map(createTime -> Duration.between(createTime, now).toSeconds())
+                .orElse(0L));
+    }
+
+    // 재처리 결과별 처리량 (ORDERED, CANCELED, FAILED)
+    private Counter processedCounter(OrderStatus result) {
+        return Counter.builder("order.retry.processed")
+                .description("재처리한 주문 수")
+                .tag("result", result.name())
+                .register(meterRegistry);
+    }
 }
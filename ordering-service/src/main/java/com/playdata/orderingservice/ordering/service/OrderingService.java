@@ -1,27 +1,34 @@
 package com.playdata.orderingservice.ordering.service;
 
-import com.playdata.orderingservice.client.ProductServiceClient;
-import com.playdata.orderingservice.client.UserServiceClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.playdata.orderingservice.common.auth.TokenUserInfo;
-import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderSearchDto;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingPageResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
-import com.playdata.orderingservice.ordering.dto.ProductResDTO;
-import com.playdata.orderingservice.ordering.dto.UserResDTO;
 import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderOutbox;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderOutboxRepository;
 import com.playdata.orderingservice.ordering.repository.OrderingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,101 +38,139 @@ import java.util.stream.Collectors;
 public class OrderingService {
 
     private final OrderingRepository orderingRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
 
-    // feign client 구현체 주입 받기
-    private final UserServiceClient userServiceClient;
-    private final ProductServiceClient productServiceClient;
+    // 주문 내역에 표시할 상품 이름 캐시
+    private final ProductSummaryCache productSummaryCache;
 
-    // CircuitBreaker 동작 객체 주입
-    private final CircuitBreakerFactory circuitBreakerFactory;
+    // 이메일 -> 회원 id 변환 (user-service 호출 결과를 캐싱)
+    private final UserIdResolver userIdResolver;
 
+    // 주문 목록 한 페이지의 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 접수된 주문이 이 시간 안에 처리되지 않으면 재처리 대상이 된다.
+    @Value("${order.retry.pending-timeout:60s}")
+    private Duration pendingTimeout;
+
+    /**
+     * 주문 접수
+     * 재고 차감은 기다리지 않고, 주문과 주문 이벤트만 PENDING 상태로 저장한 뒤 바로 리턴합니다.
+     * 재고 차감과 주문 확정은 OrderOutboxDispatcher가 트랜잭션 밖에서 따로 처리합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 타 서비스 호출 중에 커넥션을 잡고 있지 않도록
     public Ordering createOrder(
             List<OrderingSaveReqDto> dtoList,
             TokenUserInfo userInfo) {
-        // 서킷 브레이커 적용하기
-        CircuitBreaker userCircuit = circuitBreakerFactory.create("userService");
-
-        CommonResDto<UserResDTO> byEmail = userCircuit.run(
-                // 정상 호출
-                () -> userServiceClient.findByEmail(userInfo.getEmail())
-                // 장애 시 대체 로직
-//                throwable -> {
-                        // 장애가 발생할 상황에 실행할 객체 선언 (fallback)
-                // 이후의 로직을 계속 실행하고 싶을 때 사용
-                // 여기에 작성하는 로직으로 정상 호출을 완벽하게 대체할 수 있을 때 사용.
-                // 우리의 상황 -> user-service에서 장애 발생하면 id를 받아올 방법이 없음;;
-                // 정상 호출을 완벽하게 대체할 수 없음. try-catch로 주문 흐름을 보류쪽으로 빼서 작업.
-//                    log.error("유저 서비스 호출 실패! 오류: {}", throwable.getMessage());
-//                    return null;
-//                }
-        );
-        // Ordering 객체를 생성하기 위해 회원 정보를 얻어오자.
-        // 우리가 가진 유일한 정보는 토큰 안에 들어있던 이메일 뿐입니다...
-        // 이메일을 가지고 요청을 보내자 -> user-service
-
-        UserResDTO userDto = byEmail.getResult();
-        log.info("user-service로부터 전달받은 결과: {}", byEmail);
-
-        // Ordering(주문) 객체 생성
-        Ordering ordering = Ordering.builder()
-                .userId(userDto.getId())
-                .orderDetails(new ArrayList<>()) // 아직 주문 상세 들어가기 전.
-                .build();
-
-        // 주문 상세 내역에 대한 처리를 반복해서 지정.
-        for (OrderingSaveReqDto dto : dtoList) {
+        if (dtoList == null || dtoList.isEmpty()) {
+            throw new IllegalArgumentException("주문할 상품이 없습니다.");
+        }
+        dtoList.forEach(dto -> {
+            if (dto.getProductQuantity() <= 0) {
+                throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다.");
+            }
+        });
 
-            // dto 안에 있는 상품 id를 이용해서 상품 정보 얻어오자.
-            // product 객체를 조회하자 -> product-service에게 요청해야 함!
-            CommonResDto<ProductResDTO> byId = productServiceClient.findById(dto.getProductId());
+        // Ordering 객체를 생성하기 위해 회원 id가 필요합니다.
+        Long userId = resolveUserId(userInfo);
 
-            ProductResDTO productResDto = byId.getResult();
+        // 재처리에 사용할 수 있도록 원본 요청을 JSON으로 보관
+        String originalRequestJson;
+        try {
+            originalRequestJson = objectMapper.writeValueAsString(dtoList);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("주문 요청을 처리할 수 없습니다.", e);
+        }
 
-            log.info("product-service로부터 받아온 결과: {}", productResDto);
-            int stockQuantity = productResDto.getStockQuantity();
+        // 주문 저장과 주문 이벤트 저장을 하나의 짧은 트랜잭션으로 묶는다.
+        return transactionTemplate.execute(status -> {
+            // Ordering(주문) 객체 생성
+            Ordering ordering = Ordering.builder()
+                    .userId(userId)
+                    .userEmail(userInfo.getEmail())
+                    .originalRequestJson(originalRequestJson)
+                    .orderStatus(OrderStatus.PENDING)
+                    // 디스패처가 처리하지 못하고 이 시각이 지나면 OrderRetryScheduler가 대신 처리
+                    .nextRetryAt(LocalDateTime.now().plus(pendingTimeout))
+                    .orderDetails(new ArrayList<>()) // 아직 주문 상세 들어가기 전.
+                    .build();
 
-            // 재고 넉넉하게 있는지 확인
-            int quantity = dto.getProductQuantity();
-            if (stockQuantity < quantity) {
-                throw new IllegalArgumentException("재고 부족!");
+            // 주문 상세 내역에 대한 처리를 반복해서 지정.
+            for (OrderingSaveReqDto dto : dtoList) {
+                // 주문 상세 내역 엔터티 생성
+                OrderDetail orderDetail = OrderDetail.builder()
+                        .productId(dto.getProductId())
+                        .ordering(ordering)
+                        .quantity(dto.getProductQuantity())
+                        .build();
+
+                // 주문 내역 리스트에 상세 내역을 add하기.
+                // (cascadeType.PERSIST로 세팅했기 때문에 함께 INSERT가 진행될 것!)
+                ordering.getOrderDetails().add(orderDetail);
             }
 
-            // 재고가 부족하지 않다면 재고 수량을 주문 수량만큼 빼주자
-            // product-service에게 재고 수량이 변경되었다고 알려주자.
-            // 상품 id와 변경되어야 할 수량을 함께 보내주자.
-            productResDto.setStockQuantity(stockQuantity - quantity);
-            productServiceClient.updateQuantity(productResDto);
-
-            // 주문 상세 내역 엔터티 생성
-            OrderDetail orderDetail = OrderDetail.builder()
-                    .productId(dto.getProductId())
-                    .ordering(ordering)
-                    .quantity(quantity)
-                    .build();
+            Ordering saved = orderingRepository.save(ordering);
+            orderOutboxRepository.save(OrderOutbox.orderCreated(saved));
+            return saved;
+        });
+    }
 
-            // 주문 내역 리스트에 상세 내역을 add하기.
-            // (cascadeType.PERSIST로 세팅했기 때문에 함께 INSERT가 진행될 것!)
-            ordering.getOrderDetails().add(orderDetail);
-        }
+    /**
+     * 내 주문 목록 (keyset 페이징)
+     * 전체 주문을 한번에 읽지 않고, cursor(이전 페이지 마지막 주문 id)보다 오래된 주문을 size개씩 조회합니다.
+     *
+     * @param cursor - 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param size - 한 페이지에 담을 주문 개수
+     */
+    @Transactional(readOnly = true)
+    public OrderingPageResDto myOrder(final TokenUserInfo userInfo, Long cursor, int size) {
+        String email = userInfo.getEmail();
+        int pageSize = pageSize(size);
 
-        return orderingRepository.save(ordering);
+        // 주문 내역은 회원 id로 저장되어 있음.
+        Long userId = resolveUserId(userInfo);
+
+        // 1. 이번 페이지의 주문 id 목록 (다음 페이지 존재 여부를 알기 위해 하나 더 조회)
+        List<Long> ids = orderingRepository.findIdsByUserIdBefore(
+                userId, cursorOrMax(cursor), Limit.of(pageSize + 1));
+
+        return buildPage(ids, pageSize, ordering -> email);
     }
 
-    public List<OrderingListResDto> myOrder(final TokenUserInfo userInfo) {
-        String email = userInfo.getEmail();
+    /**
+     * 전체 회원의 주문 목록 (관리자용, keyset 페이징)
+     * 전체 데이터를 한번에 받아야 할 때는 OrderExportService의 스트리밍 내보내기를 사용합니다.
+     */
+    @Transactional(readOnly = true)
+    public OrderingPageResDto allOrders(OrderSearchDto searchDto, Long cursor, int size) {
+        int pageSize = pageSize(size);
 
-        // 이메일로는 주문 회원 정보를 알 수가 없음. (id로 되어 있으니까)
-        CommonResDto<UserResDTO> byEmail
-                = userServiceClient.findByEmail(email);
-        UserResDTO userDto = byEmail.getResult();
+        List<Long> ids = orderingRepository.findIdsBefore(
+                cursorOrMax(cursor),
+                searchDto.getStatus(), searchDto.getFrom(), searchDto.getTo(),
+                Limit.of(pageSize + 1));
 
-        // 해당 사용자의 주문 내역 전부 가져오기
-        List<Ordering> orderingList
-                = orderingRepository.findByUserId(userDto.getId());
+        return buildPage(ids, pageSize, Ordering::getUserEmail);
+    }
+
+    // 주문 id 목록(pageSize + 1개까지)으로 한 페이지를 만든다.
+    private OrderingPageResDto buildPage(List<Long> ids, int pageSize, Function<Ordering, String> emailOf) {
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return OrderingPageResDto.builder().orders(List.of()).hasNext(false).build();
+        }
+
+        // 2. 주문과 주문 상세를 한번의 쿼리로 가져오기 (주문마다 상세를 따로 조회하지 않음)
+        List<Ordering> orderingList = orderingRepository.findWithDetailsByIdIn(ids);
 
         // 주문 내역에서 모든 상품 ID를 추출한 후
-        // product-service에게 상품 정보를 요청.
+        // 상품 이름을 조회. (캐시에 없는 상품만 product-service에게 요청)
         // flatMap: 하나의 주문 내역에서 상세 주문 내역 리스트를 꺼낸 후 하나의 스트림으로 평탄화
                 /* flatMap의 동작 원리
                 [
@@ -138,22 +183,36 @@ public class OrderingService {
                  */
         List<Long> productIds = orderingList.stream().flatMap(ordering -> ordering.getOrderDetails().stream()).map(OrderDetail::getProductId).distinct().toList();
 
-        // product-service에게 상품 정보를 달라고 요청해야 함.
-        CommonResDto<List<ProductResDTO>> products
-                = productServiceClient.getProducts(productIds);
-        List<ProductResDTO> dtoList = products.getResult();
-
-        // product-service에게 받아온 리스트를 필요로 하는 정보로만 맵으로 맵핑.
-        Map<Long, String> productIdToNameMap = dtoList.stream()
-                .collect(Collectors.toMap(
-                        ProductResDTO::getId,
-                        ProductResDTO::getName
-                ));
+        // 상품 id -> 상품 이름 맵
+        Map<Long, String> productIdToNameMap = productSummaryCache.getNames(productIds);
 
         // Ordering 객체를 DTO로 변환하자. 주문 상세에 대한 변환도 따로 처리.
-        return orderingList.stream()
-                .map(ordering -> ordering.fromEntity(email, productIdToNameMap))
+        List<OrderingListResDto> orders = orderingList.stream()
+                .map(ordering -> ordering.fromEntity(emailOf.apply(ordering), productIdToNameMap))
                 .collect(Collectors.toList());
 
+        return OrderingPageResDto.builder()
+                .orders(orders)
+                .nextCursor(hasNext ? ids.get(ids.size() - 1) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    // 첫 페이지(cursor 없음)는 가장 최근 주문부터
+    private Long cursorOrMax(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+
+    // 토큰에 담겨온 회원 id를 사용 (타 서비스 호출 없음)
+    // id 클레임이 없는 이전 토큰이라면 이메일 -> 회원 id 변환 (캐시 -> user-service)
+    private Long resolveUserId(TokenUserInfo userInfo) {
+        if (userInfo.getId() != null) {
+            return userInfo.getId();
+        }
+        return userIdResolver.resolve(userInfo.getEmail());
     }
-}
\ No newline at end of file
+}
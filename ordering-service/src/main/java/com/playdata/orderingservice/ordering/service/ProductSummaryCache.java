@@ -0,0 +1,176 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.ProductLookupResDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ 주문 내역 화면에 필요한 상품 요약 정보(상품 id -> 상품 이름) 캐시
+
+ 1차: 서버 메모리 캐시 (Caffeine, 크기 제한)
+ 2차: Redis (product:summary:{id}) -> 여러 ordering-service 서버가 함께 사용
+ 3차: product-service 호출 -> 1, 2차에 없는 상품만 모아서 한번에 요청 (/product/lookup, 이름만)
+
+ 상품이 변경/삭제되면 product-service가 Redis 키를 지우고 product:changed 채널로 상품 id를 발행한다.
+ 채널을 구독하고 있다가 메모리 캐시에서도 지운다.
+ */
+@Component
+@Slf4j
+public class ProductSummaryCache {
+
+    private static final String KEY_PREFIX = "product:summary:";
+    private static final String CHANGED_CHANNEL = "product:changed";
+
+    private final ProductServiceClient productServiceClient;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<Long, String> localCache;
+    private final Duration redisTtl;
+
+    private final Counter redisHit;
+    private final Counter redisMiss;
+
+    public ProductSummaryCache(ProductServiceClient productServiceClient,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.summary-cache.local.max-size:50000}") long localMaxSize,
+                               @Value("${product.summary-cache.local.ttl:1h}") Duration localTtl,
+                               @Value("${product.summary-cache.redis.ttl:1d}") Duration redisTtl) {
+        this.productServiceClient = productServiceClient;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.redisTtl = redisTtl;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl) // 이벤트가 유실되더라도 일정 시간이 지나면 갱신되도록
+                .recordStats()
+                .build();
+
+        this.redisHit = Counter.builder("product.summary.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMiss = Counter.builder("product.summary.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void init() {
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "productSummary");
+
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String productId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                localCache.invalidate(Long.valueOf(productId));
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 상품 변경 이벤트: {}", productId);
+            }
+        }, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    /**
+     * 상품 id 목록에 해당하는 상품 이름을 조회
+     * 존재하지 않는(삭제된) 상품은 결과에 포함되지 않는다.
+     */
+    public Map<Long, String> getNames(Collection<Long> productIds) {
+        Map<Long, String> names = new HashMap<>(localCache.getAllPresent(productIds));
+
+        List<Long> misses = productIds.stream()
+                .filter(id -> !names.containsKey(id))
+                .distinct()
+                .toList();
+        if (misses.isEmpty()) {
+            return names;
+        }
+
+        // 2차: Redis에서 한번에 조회
+        List<Long> remoteMisses = new ArrayList<>();
+        Map<Long, String> fromRedis = readFromRedis(misses, remoteMisses);
+        localCache.putAll(fromRedis);
+        names.putAll(fromRedis);
+        redisHit.increment(fromRedis.size());
+        redisMiss.increment(remoteMisses.size());
+
+        if (remoteMisses.isEmpty()) {
+            return names;
+        }
+
+        // 3차: 캐시에 없던 상품만 모아서 product-service에 한번 요청 (이름만 받는다)
+        CommonResDto<ProductLookupResDTO> products = productServiceClient.lookup("name", remoteMisses);
+        Map<Long, String> fetched = new HashMap<>();
+        products.getResult().getRows().forEach(row ->
+                fetched.put(((Number) row.get(0)).longValue(), (String) row.get(1)));
+
+        localCache.putAll(fetched);
+        writeToRedis(fetched);
+        names.putAll(fetched);
+        return names;
+    }
+
+    private Map<Long, String> readFromRedis(List<Long> ids, List<Long> misses) {
+        Map<Long, String> found = new HashMap<>();
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                    .multiGet(ids.stream().map(id -> KEY_PREFIX + id).toList());
+            for (int i = 0; i < ids.size(); i++) {
+                String value = values != null ? values.get(i) : null;
+                if (value != null) {
+                    found.put(ids.get(i), value);
+                } else {
+                    misses.add(ids.get(i));
+                }
+            }
+        } catch (Exception e) {
+            // Redis 장애 시 product-service로 바로 요청
+            log.warn("Redis에서 상품 요약 조회 실패: {}", e.getMessage());
+            found.clear();
+            misses.clear();
+            misses.addAll(ids);
+        }
+        return found;
+    }
+
+    private void writeToRedis(Map<Long, String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        try {
+            // 여러 건을 한번의 왕복으로 저장 (pipeline)
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                names.forEach((id, name) ->
+                        stringConnection.setEx(KEY_PREFIX + id, redisTtl.toSeconds(), name));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Redis에 상품 요약 저장 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.orderingservice.client.UserServiceClient;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.UserResDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ 이메일 -> 회원 id 변환을 캐싱하는 객체 (user-service 호출 최소화)
+
+ 1차: 서버 메모리 캐시 (Caffeine, 크기 제한 + 마지막 조회 후 TTL)
+      -> 자주 주문하는 회원은 계속 조회되므로 캐시에서 빠지지 않고, 서버 밖으로 나가지 않는다.
+ 2차: Redis (user:id:{email}) -> 여러 ordering-service 서버가 함께 사용
+ 3차: user-service 호출 (서킷 브레이커 적용)
+
+ user-service에는 회원 삭제/이메일 변경 기능이 없어서 이메일 -> id 매핑은 바뀌지 않는다. 따라서 별도의 무효화는 하지 않고,
+ 나중에 그런 기능이 생기더라도 오래된 값은 TTL(메모리: 마지막 조회 후 local.ttl, Redis: redis.ttl)까지만 남는다.
+ */
+@Component
+@Slf4j
+public class UserIdResolver {
+
+    private static final String KEY_PREFIX = "user:id:";
+
+    private final UserServiceClient userServiceClient;
+    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, Long> localCache;
+    private final Duration redisTtl;
+
+    private final Counter redisHit;
+    private final Counter redisMiss;
+
+    public UserIdResolver(UserServiceClient userServiceClient,
+                          CircuitBreakerFactory circuitBreakerFactory,
+                          StringRedisTemplate redisTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${user.id-cache.local.max-size:10000}") long localMaxSize,
+                          @Value("${user.id-cache.local.ttl:30m}") Duration localTtl,
+                          @Value("${user.id-cache.redis.ttl:6h}") Duration redisTtl) {
+        this.userServiceClient = userServiceClient;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.redisTtl = redisTtl;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterAccess(localTtl)
+                .recordStats()
+                .build();
+
+        this.redisHit = Counter.builder("user.id.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMiss = Counter.builder("user.id.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void init() {
+        // 메모리 캐시 적중률: cache.gets{cache=userId, result=hit|miss}, cache.evictions 등
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "userId");
+    }
+
+    /**
+     * 이메일로 회원 id를 조회
+     * 같은 이메일에 대한 동시 조회는 한번만 Redis/user-service로 나간다.
+     */
+    public Long resolve(String email) {
+        return localCache.get(email, this::loadFromRemote);
+    }
+
+    private Long loadFromRemote(String email) {
+        String key = KEY_PREFIX + email;
+
+        // Redis 장애가 나더라도 주문은 받을 수 있도록 user-service로 넘어간다.
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                redisHit.increment();
+                return Long.valueOf(cached);
+            }
+        } catch (Exception e) {
+            log.warn("Redis에서 회원 id 조회 실패. email: {}, 오류: {}", email, e.getMessage());
+        }
+        redisMiss.increment();
+
+        CircuitBreaker userCircuit = circuitBreakerFactory.create("userService");
+        CommonResDto<UserResDTO> byEmail = userCircuit.run(() -> userServiceClient.findByEmail(email));
+        UserResDTO userDto = byEmail.getResult();
+        if (userDto == null || userDto.getId() == null) {
+            throw new EntityNotFoundException("User not found! email: " + email);
+        }
+
+        try {
+            redisTemplate.opsForValue().set(key, String.valueOf(userDto.getId()), redisTtl);
+        } catch (Exception e) {
+            log.warn("Redis에 회원 id 저장 실패. email: {}, 오류: {}", email, e.getMessage());
+        }
+        return userDto.getId();
+    }
+}
@@ -0,0 +1,70 @@
+package com.playdata.orderingservice.common.sql;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlProfilerTest {
+
+    @Test
+    void literalsAreReplaced() {
+        assertThat(SqlProfiler.normalize("select * from tbl_product where name = 'it''s' and price > 1000 limit 20"))
+                .isEqualTo("select * from tbl_product where name = ? and price > ? limit ?");
+        assertThat(SqlProfiler.normalize("update tbl_product set price = 12.5 where id = 3"))
+                .isEqualTo("update tbl_product set price = ? where id = ?");
+    }
+
+    @Test
+    void inListsOfAnyLengthShareOneShape() {
+        String two = SqlProfiler.normalize("select p1_0.id from tbl_product p1_0 where p1_0.id in (?,?)");
+        String five = SqlProfiler.normalize("select p1_0.id from tbl_product p1_0 where p1_0.id in ( ?, ?, ?, ?, ? )");
+        String literals = SqlProfiler.normalize("select p1_0.id from tbl_product p1_0 where p1_0.id IN (1, 2, 3)");
+
+        assertThat(two).isEqualTo("select p1_0.id from tbl_product p1_0 where p1_0.id in (?)");
+        assertThat(five).isEqualTo(two);
+        assertThat(literals).isEqualTo(two);
+    }
+
+    @Test
+    void hibernateAliasesAreKept() {
+        // p1_0, o1_0 같은 별칭 안의 숫자는 리터럴이 아니다.
+        String sql = "select o1_0.id,o1_0.user_id from tbl_ordering o1_0\n    join tbl_ordering_detail o2_0 on o1_0.id=o2_0.ordering_id\n    where o1_0.user_id=?";
+
+        assertThat(SqlProfiler.normalize(sql)).isEqualTo(
+                "select o1_0.id,o1_0.user_id from tbl_ordering o1_0 join tbl_ordering_detail o2_0 on o1_0.id=o2_0.ordering_id where o1_0.user_id=?");
+    }
+
+    @Test
+    void longShapeIsTruncated() {
+        String sql = "select " + "a_column, ".repeat(100) + "b from t";
+
+        assertThat(SqlProfiler.normalize(sql)).hasSize(300);
+    }
+
+    @Test
+    void percentileHistogramIsOffByDefault() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        profiler(meterRegistry, false).record("select 1", 1_000_000L, true, false, null);
+
+        Timer timer = meterRegistry.get("sql.query").tag("type", "SELECT").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.takeSnapshot().histogramCounts()).isEmpty();
+    }
+
+    @Test
+    void percentileHistogramCanBeEnabled() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        profiler(meterRegistry, true).record("select 1", 1_000_000L, true, false, null);
+
+        Timer timer = meterRegistry.get("sql.query").tag("type", "SELECT").timer();
+        assertThat(timer.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    private SqlProfiler profiler(SimpleMeterRegistry meterRegistry, boolean percentileHistogram) {
+        return new SqlProfiler(meterRegistry, true, Duration.ofMillis(200), 0, false, 200, 100, percentileHistogram);
+    }
+}
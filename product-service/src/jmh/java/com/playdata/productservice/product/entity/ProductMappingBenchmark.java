@@ -0,0 +1,49 @@
+package com.playdata.productservice.product.entity;
+
+import com.playdata.productservice.product.dto.ProductResDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 상품 응답 변환 (Product.toDTO) 성능 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductMappingBenchmark {
+
+    // 목록 한 페이지 크기 (/product/list 기본 20, 최대 100)
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private Product product;
+    private List<Product> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            page.add(Product.builder()
+                    .id(i)
+                    .name("상품 " + i)
+                    .category("전자기기")
+                    .price(10000)
+                    .stockQuantity(100)
+                    .imagePath("https://bucket.s3.ap-northeast-2.amazonaws.com/" + i + "_image.png")
+                    .thumbnailPath("https://bucket.s3.ap-northeast-2.amazonaws.com/thumbnails/" + i + "_image.png.jpg")
+                    .build());
+        }
+        product = page.get(0);
+    }
+
+    @Benchmark
+    public ProductResDTO toDTO() {
+        return product.toDTO();
+    }
+
+    @Benchmark
+    public List<ProductResDTO> toDTOPage() {
+        return page.stream().map(Product::toDTO).toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.playdata.productservice.common.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// 요청 처리와 분리해서 뒤에서 실행할 작업용 스레드 풀
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    // 이미지 변환(썸네일 생성) 전용 스레드 풀
+    // 이미지 디코딩은 CPU와 메모리를 많이 쓰므로 동시에 처리하는 개수와 대기열 크기를 제한한다.
+    // 대기열이 가득 차면 작업을 버린다. (썸네일이 없는 상품은 원본 이미지를 그대로 사용)
+    @Bean
+    public ThreadPoolTaskExecutor imageProcessingExecutor(
+            @Value("${product.image.processing.threads:2}") int threads,
+            @Value("${product.image.processing.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("이미지 처리 대기열이 가득 차서 작업을 건너뜁니다. 대기 중인 작업: {}", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
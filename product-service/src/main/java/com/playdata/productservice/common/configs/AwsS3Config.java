@@ -9,19 +9,44 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 // AWS에 연결해 S3애 관련된 서비스를 실행하는 전용 객체
 @Component
 @Slf4j
 public class AwsS3Config {
 
+    // DeleteObjects 요청 한 번에 지정할 수 있는 최대 키 개수
+    public static final int MAX_DELETE_KEYS = 1000;
+
     // S3 버킷을 제어하는 객체
     private S3Client s3Client;
 
@@ -37,6 +62,18 @@ public class AwsS3Config {
     @Value("${spring.cloud.aws.s3.bucket}")
     private String bucketName;
 
+    // 이 크기를 넘는 파일은 멀티파트 업로드 (S3의 part 최소 크기는 5MB)
+    @Value("${product.image.multipart-threshold:16777216}")
+    private long multipartThreshold;
+
+    @Value("${product.image.part-size:8388608}")
+    private int partSize;
+
+    // 상품 이미지(원본, 썸네일)는 이 경로 아래에만 올린다. (고아 이미지 정리도 이 경로 안에서만 찾는다)
+    // 버킷을 다른 기능/환경과 같이 쓰더라도 상품 이미지가 아닌 오브젝트는 건드리지 않기 위해서
+    @Value("${product.image.key-prefix:products/}")
+    private String productKeyPrefix;
+
     // S3에 연결해서 인증을 처리하는 로직
     @PostConstruct // 클래스를 기반으로 객체가 생성될 때 1번만 자동 실행되는 아노테이션
     private void initializeAmazonS3Client() {
@@ -53,27 +90,82 @@ public class AwsS3Config {
 
     /**
      * 버킷에 파일을 업로드하고, 업로드한 버킷의 url 정보를 리턴
+     * 파일 전체를 byte[]로 메모리에 올리지 않고 스트림에서 읽는 대로 전송한다.
+     * 크기가 multipart-threshold를 넘는 파일은 part-size 단위로 나눠서 올리므로
+     * 파일이 아무리 커도 업로드 한 건이 사용하는 메모리는 part 하나 크기를 넘지 않는다.
      *
-     * @param uploadFile - 업로드 할 파일의 실제 raw 데이터
-     * @param fileName   - 업로드 할 파일명
+     * @param inputStream   - 업로드 할 파일의 스트림
+     * @param contentLength - 파일 크기 (byte)
+     * @param contentType   - 파일 형식 (image/png 등, 모르면 null)
+     * @param fileName      - 업로드 할 파일명
      * @return - 버킷에 업로드 된 버킷 경로(url)
      */
-    public String uploadToS3Bucket(byte[] uploadFile, String fileName) {
-        // 업로드 할 파일을 S3 오브젝트로 생성
-        PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName) // 버킷 이름
-                .key(fileName) // 저장될 파일명
-                .build();
+    public String uploadToS3Bucket(InputStream inputStream, long contentLength,
+                                   String contentType, String fileName) throws IOException {
+        if (contentLength > multipartThreshold) {
+            uploadMultipart(inputStream, contentType, fileName);
+        } else {
+            // 업로드 할 파일을 S3 오브젝트로 생성
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName) // 버킷 이름
+                    .key(fileName) // 저장될 파일명
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build();
 
-        // 오브젝트를 버킷에 업로드
-        // (위에서 선언한 객체, 업로드 하고자 하는 파일 (바이트 배열)
-        s3Client.putObject(request, RequestBody.fromBytes(uploadFile));
+            // 오브젝트를 버킷에 업로드 (크기를 알려주면 SDK가 스트림을 통째로 버퍼링하지 않는다)
+            s3Client.putObject(request, RequestBody.fromInputStream(inputStream, contentLength));
+        }
 
         // 업로드 되는 파일의 url을 리턴 -> DB에 저장.
         return s3Client.utilities()
                 .getUrl(b -> b.bucket(bucketName).key(fileName)).toString();
     }
 
+    // 큰 파일은 part 단위로 나눠서 업로드 (part 버퍼 하나를 재사용)
+    private void uploadMultipart(InputStream inputStream, String contentType, String fileName) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            int partNumber = 1;
+            int read;
+            while ((read = inputStream.readNBytes(buffer, 0, buffer.length)) > 0) {
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(fileName)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            // 실패한 업로드의 part들이 버킷에 남아서 요금이 나가지 않도록 취소
+            log.error("S3 멀티파트 업로드 실패: {}, 오류: {}", fileName, e.getMessage());
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+
     // 버킷에 업로드 된 이미지를 삭제하는 로직
     // 버킷에 오브젝트를 지우기 위해서는 키값을 줘야 하는데
     // 우리가 가지고 있는 건 키가 아니라 url입니다.
@@ -81,17 +173,108 @@ public class AwsS3Config {
     // 우리가 가진 데이터: https://orderservice-prod-img8917.s3.ap-northeast-2.amazonaws.com/74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
     // 가공 결과: 74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
     public void deleteFromS3Bucket(String imageUrl) throws MalformedURLException, UnsupportedEncodingException {
-        URL url = new URL(imageUrl);
-
-        // getPath()를 통해 key값 앞에 "/"까지 포함해서 제거.
-        String decodingKey = URLDecoder.decode(url.getPath(), "UTF-8");
-        String key = decodingKey.substring(1); // 앞에 / 떼기
-
         DeleteObjectRequest request = DeleteObjectRequest.builder()
                 .bucket(bucketName)
-                .key(key)
+                .key(toObjectKey(imageUrl))
                 .build();
 
         s3Client.deleteObject(request);
     }
+
+    /**
+     * 여러 오브젝트를 한번의 요청으로 삭제 (S3 DeleteObjects, 요청 한 번에 최대 1000개)
+     * 이미 없는 키를 지우는 것은 성공으로 처리된다.
+     *
+     * @param keys - 삭제할 오브젝트 키 목록 (1000개 이하)
+     * @return - 삭제에 실패한 키 목록
+     */
+    public List<String> deleteObjectsFromS3Bucket(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        if (keys.size() > MAX_DELETE_KEYS) {
+            throw new IllegalArgumentException("한 번에 삭제할 수 있는 오브젝트는 " + MAX_DELETE_KEYS + "개 이하입니다.");
+        }
+
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+
+        // quiet 모드: 응답에 실패한 키만 담겨 온다.
+        DeleteObjectsResponse response = s3Client.deleteObjects(b -> b
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build()));
+
+        List<String> failed = new ArrayList<>();
+        for (S3Error error : response.errors()) {
+            log.warn("S3 오브젝트 삭제 실패: {}, 코드: {}, 메세지: {}", error.key(), error.code(), error.message());
+            failed.add(error.key());
+        }
+        return failed;
+    }
+
+    /**
+     * 버킷에서 prefix로 시작하는 오브젝트 중 createdBefore 이전에 업로드 된 것들의 키를 페이지(최대 1000개) 단위로 전달
+     * 목록을 한번에 메모리에 모으지 않는다.
+     */
+    public void forEachObjectKeys(String prefix, Instant createdBefore, Consumer<List<String>> pageConsumer) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        s3Client.listObjectsV2Paginator(request).forEach(page -> {
+            List<String> keys = page.contents().stream()
+                    .filter(object -> object.lastModified().isBefore(createdBefore))
+                    .map(S3Object::key)
+                    .toList();
+            if (!keys.isEmpty()) {
+                pageConsumer.accept(keys);
+            }
+        });
+    }
+
+    // 오브젝트 키 -> 버킷 url (DB에 저장되는 형태)
+    public String toUrl(String key) {
+        return s3Client.utilities()
+                .getUrl(b -> b.bucket(bucketName).key(key)).toString();
+    }
+
+    // 버킷에 업로드 된 파일을 스트림으로 읽기 (다 읽은 후 반드시 close 해야 함)
+    public InputStream downloadFromS3Bucket(String imageUrl) throws MalformedURLException, UnsupportedEncodingException {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(toObjectKey(imageUrl))
+                .build());
+    }
+
+    // 상품 이미지 파일명 -> 버킷 오브젝트 키
+    // 74b59c79-..._fileName.gif -> products/74b59c79-..._fileName.gif
+    public String productKey(String fileName) {
+        return productKeyPrefix + fileName;
+    }
+
+    public String getProductKeyPrefix() {
+        return productKeyPrefix;
+    }
+
+    // 원본 이미지 url로 파생 이미지(썸네일 등)의 키를 만든다. (상품 이미지 경로 아래)
+    // products/74b59c79-..._fileName.gif -> products/thumbnails/74b59c79-..._fileName.gif.jpg
+    public String derivedKey(String imageUrl, String prefix, String extension)
+            throws MalformedURLException, UnsupportedEncodingException {
+        String originalKey = toObjectKey(imageUrl);
+        // 경로를 나누기 전에 버킷 최상위에 올린 예전 이미지도 같은 규칙으로
+        String fileName = originalKey.startsWith(productKeyPrefix)
+                ? originalKey.substring(productKeyPrefix.length()) : originalKey;
+        return productKey(prefix + "/" + fileName + "." + extension);
+    }
+
+    // url -> 버킷 오브젝트 키
+    public String toObjectKey(String imageUrl) throws MalformedURLException, UnsupportedEncodingException {
+        URL url = new URL(imageUrl);
+
+        // getPath()를 통해 key값 앞에 "/"까지 포함해서 제거.
+        String decodingKey = URLDecoder.decode(url.getPath(), "UTF-8");
+        return decodingKey.substring(1); // 앞에 / 떼기
+    }
 }
@@ -2,7 +2,9 @@ package com.playdata.productservice.common.configs;
 
 import com.playdata.productservice.common.auth.JwtAuthFilter;
 import com.playdata.productservice.common.exception.CustomAuthenticationEntryPoint;
+import com.playdata.productservice.common.sql.SqlProfilerEndpoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -43,7 +45,10 @@ public class SecurityConfig {
         // 요청 권한 설정(어떤 url이냐에 따라 검사를 할 지 말지를 결정)
         http.authorizeHttpRequests(auth -> {
             auth
-                    .requestMatchers("product/list", "product/updateQuantity", "product/{prodId}", "product/products",
+                    // SQL 프로파일러는 실행된 SQL과 파라미터를 보여주고 설정도 바꿀 수 있으므로 관리자만 (아래 /actuator/**보다 먼저)
+                    .requestMatchers(EndpointRequest.to(SqlProfilerEndpoint.class)).hasRole("ADMIN")
+                    .requestMatchers("product/list", "product/list/cursor", "product/updateQuantity", "product/decreaseQuantity", "product/{prodId}", "product/products",
+                            "product/lookup", "product/reserveStock",
                             "/actuator/**").permitAll()
                     .anyRequest().authenticated();
         });
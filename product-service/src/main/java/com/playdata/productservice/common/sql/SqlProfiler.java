@@ -0,0 +1,258 @@
+package com.playdata.productservice.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/*
+ SQL 실행 시간 측정 객체 (p6spy 대체)
+
+ p6spy는 모든 쿼리의 파라미터를 문자열로 만들어서 로그를 남기기 때문에 운영 환경에서 쿼리마다 비용이 든다.
+ 여기서는 로그를 남기지 않고 다음 정보만 메모리/Micrometer에 모은다.
+
+ 1. 쿼리 형태(shape)별 실행 시간: sql.query{shape, type}
+    -> 리터럴과 IN 목록을 ?로 바꾼 SQL이 같으면 같은 형태로 본다. (형태 개수는 max-shapes개로 제한)
+    -> 백분위 히스토그램은 형태마다 버킷 수십 개가 추가되므로 percentile-histogram: true일 때만 내보낸다.
+ 2. slow-threshold보다 오래 걸린 쿼리: 최근 buffer-size개 (sql.query.slow 카운터도 증가)
+ 3. sample-rate 비율로 뽑은 쿼리의 전체 SQL과 파라미터: 최근 buffer-size개
+    -> 파라미터에는 이메일, 비밀번호 해시 같은 값이 담기므로 capture-parameters: true일 때만 수집한다. (기본값 false)
+
+ 2, 3번과 설정 변경은 /actuator/sqlprofiler 에서 확인할 수 있다. (SqlProfilerEndpoint)
+ */
+@Component
+public class SqlProfiler {
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final String OTHER_SHAPE = "other";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxShapes;
+    private final int bufferSize;
+    private final boolean percentileHistogram;
+
+    // 실행 중에 /actuator/sqlprofiler로 바꿀 수 있는 설정
+    private volatile Duration slowThreshold;
+    private volatile double sampleRate;
+    private volatile boolean captureParameters;
+
+    private final Map<String, String> shapeCache = new ConcurrentHashMap<>(); // 원본 SQL -> 형태
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>(); // 형태 -> 타이머
+    private final Deque<SqlSample> slowQueries = new ArrayDeque<>();
+    private final Deque<SqlSample> samples = new ArrayDeque<>();
+    private final Counter slowCounter;
+
+    public SqlProfiler(MeterRegistry meterRegistry,
+                       @Value("${sql.profiler.enabled:true}") boolean enabled,
+                       @Value("${sql.profiler.slow-threshold:200ms}") Duration slowThreshold,
+                       @Value("${sql.profiler.sample-rate:0.01}") double sampleRate,
+                       @Value("${sql.profiler.capture-parameters:false}") boolean captureParameters,
+                       @Value("${sql.profiler.max-shapes:200}") int maxShapes,
+                       @Value("${sql.profiler.buffer-size:100}") int bufferSize,
+                       @Value("${sql.profiler.percentile-histogram:false}") boolean percentileHistogram) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.slowThreshold = slowThreshold;
+        this.sampleRate = sampleRate;
+        this.captureParameters = captureParameters;
+        this.maxShapes = maxShapes;
+        this.bufferSize = bufferSize;
+        this.percentileHistogram = percentileHistogram;
+
+        this.slowCounter = Counter.builder("sql.query.slow")
+                .description("slow-threshold보다 오래 걸린 쿼리 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 이번 쿼리의 전체 SQL과 파라미터를 남길지 결정 (PreparedStatement는 만들 때 한번 결정)
+    public boolean shouldSample() {
+        double rate = sampleRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public boolean isCaptureParameters() {
+        return captureParameters;
+    }
+
+    /**
+     * 쿼리 한 건의 실행 결과를 기록
+     *
+     * @param sql          - 실행한 SQL
+     * @param elapsedNanos - 실행 시간
+     * @param success      - 예외 없이 실행됐는지
+     * @param sampled      - 샘플로 뽑힌 쿼리인지
+     * @param parameters   - 바인딩된 파라미터 (수집하지 않았으면 null)
+     */
+    public void record(String sql, long elapsedNanos, boolean success, boolean sampled, List<Object> parameters) {
+        if (sql == null) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        timerOf(shape).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        boolean slow = elapsedNanos >= slowThreshold.toNanos();
+        if (slow) {
+            slowCounter.increment();
+        }
+        if (slow || sampled) {
+            SqlSample sample = new SqlSample(sql, formatParameters(parameters),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), success, LocalDateTime.now().toString());
+            if (slow) {
+                add(slowQueries, sample);
+            }
+            if (sampled) {
+                add(samples, sample);
+            }
+        }
+    }
+
+    public void configure(Double sampleRate, Duration slowThreshold, Boolean captureParameters) {
+        if (sampleRate != null) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("sampleRate는 0 ~ 1 사이의 값이어야 합니다.");
+            }
+            this.sampleRate = sampleRate;
+        }
+        if (slowThreshold != null) {
+            this.slowThreshold = slowThreshold;
+        }
+        if (captureParameters != null) {
+            this.captureParameters = captureParameters;
+        }
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public List<SqlSample> getSlowQueries() {
+        return snapshot(slowQueries);
+    }
+
+    public List<SqlSample> getSamples() {
+        return snapshot(samples);
+    }
+
+    public int getShapeCount() {
+        return timers.size();
+    }
+
+    public void clear() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        synchronized (samples) {
+            samples.clear();
+        }
+    }
+
+    // 리터럴, IN 목록의 개수, 공백 차이를 없앤 SQL
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    private String shapeOf(String sql) {
+        String shape = shapeCache.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            // IN 목록 길이가 제각각인 SQL 등으로 캐시가 끝없이 커지지 않도록 제한
+            if (shapeCache.size() < maxShapes * 10) {
+                shapeCache.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private Timer timerOf(String shape) {
+        Timer timer = timers.get(shape);
+        if (timer != null) {
+            return timer;
+        }
+        // 형태가 너무 많아지면 지표 개수가 폭발하지 않도록 나머지는 other로 모은다.
+        String tag = timers.size() < maxShapes ? shape : OTHER_SHAPE;
+        return timers.computeIfAbsent(tag, key -> Timer.builder("sql.query")
+                .description("쿼리 형태별 실행 시간")
+                .tag("shape", key)
+                .tag("type", typeOf(key))
+                .publishPercentileHistogram(percentileHistogram)
+                .register(meterRegistry));
+    }
+
+    private static String typeOf(String shape) {
+        int end = shape.indexOf(' ');
+        String keyword = end > 0 ? shape.substring(0, end) : shape;
+        return keyword.toUpperCase();
+    }
+
+    private String formatParameters(List<Object> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            String value = String.valueOf(parameter);
+            values.add(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+        }
+        return values.toString();
+    }
+
+    private void add(Deque<SqlSample> buffer, SqlSample sample) {
+        synchronized (buffer) {
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(sample);
+        }
+    }
+
+    private static List<SqlSample> snapshot(Deque<SqlSample> buffer) {
+        synchronized (buffer) {
+            return new ArrayList<>(buffer);
+        }
+    }
+
+    // 느린 쿼리 또는 샘플로 남긴 쿼리 한 건
+    @Getter
+    @AllArgsConstructor
+    public static class SqlSample {
+        private final String sql;
+        private final String parameters;
+        private final long elapsedMillis;
+        private final boolean success;
+        private final String executedAt;
+    }
+}
@@ -1,20 +1,28 @@
 package com.playdata.productservice.product.controller;
 
 import com.playdata.productservice.common.dto.CommonResDTO;
+import com.playdata.productservice.product.dto.ProductLookupResDTO;
 import com.playdata.productservice.product.dto.ProductResDTO;
 import com.playdata.productservice.product.dto.ProductSaveReqDTO;
 import com.playdata.productservice.product.dto.ProductSearchDto;
+import com.playdata.productservice.product.dto.ProductSliceResDTO;
+import com.playdata.productservice.product.dto.ProductStockReqDTO;
+import com.playdata.productservice.product.dto.ProductStockResDTO;
 import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.service.ProductLookupService;
 import com.playdata.productservice.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +33,12 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductLookupService productLookupService;
+
+    // 상품 목록/상세 응답을 게이트웨이(ResponseCacheFilter)가 캐시해도 되는 시간
+    // (시큐리티 기본값인 Cache-Control: no-store 대신 내려줌, 0이면 캐시하지 않음)
+    @Value("${product.http-cache.max-age:5s}")
+    private Duration catalogMaxAge;
 
     // 상품 등록 요청
     @PreAuthorize("hasRole('ADMIN')")
@@ -60,7 +74,23 @@ public class ProductController {
 
         CommonResDTO resDTO = new CommonResDTO(HttpStatus.OK, "상품목록 조회", productList);
 
-        return new ResponseEntity<>(resDTO, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(resDTO);
+    }
+
+    // 상품 목록 (keyset 페이징) -> 페이지 번호 대신 cursor로 다음 페이지를 요청
+    // 첫 페이지: /product/list/cursor?size=20, 다음 페이지: 응답의 nextCursor를 cursor로 전달
+    // 검색 조건(category, searchName)은 /product/list와 동일
+    @GetMapping("/list/cursor")
+    public ResponseEntity<?> getProductListByCursor(
+            ProductSearchDto dto,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("dto: {}, cursor: {}, size: {}", dto, cursor, size);
+        ProductSliceResDTO slice = productService.getProductListByCursor(dto, cursor, size);
+
+        CommonResDTO resDTO = new CommonResDTO(HttpStatus.OK, "상품목록 조회", slice);
+
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(resDTO);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -83,7 +113,7 @@ public class ProductController {
         CommonResDTO resDTO
                 = new CommonResDTO(HttpStatus.OK, "조회 완료", dto);
 
-        return ResponseEntity.ok().body(resDTO);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(resDTO);
     }
 
     // 수량 업데이트
@@ -100,6 +130,19 @@ public class ProductController {
         return ResponseEntity.ok().body(resDto);
     }
 
+    // 재고 차감 (현재 재고를 덮어쓰지 않고 차감할 수량만 전달)
+    @PutMapping("/decreaseQuantity")
+    public ResponseEntity<?> decreaseStockQuantity(@RequestBody ProductStockReqDTO dto) {
+        log.info("/product/decreaseQuantity: PUT, prodId: {}, quantity: {}"
+                , dto.getProductId(), dto.getQuantity());
+        ProductStockResDTO result
+                = productService.decreaseStockQuantity(dto.getProductId(), dto.getQuantity());
+
+        CommonResDTO resDTO = new CommonResDTO(
+                HttpStatus.OK, result.isSuccess() ? "재고 차감 완료" : "재고 부족", result);
+        return ResponseEntity.ok().body(resDTO);
+    }
+
     // 한 사용자의 모든 주문 내역 안에 있는 상품 정보를 리턴하는 메서드
     @PostMapping("/products")
     public ResponseEntity<?> getProducts(@RequestBody List<Long> productIds) {
@@ -110,4 +153,62 @@ public class ProductController {
 
         return ResponseEntity.ok().body(resDTO);
     }
+
+    // 상품 일괄 조회 (서비스 간 통신용)
+    // fields로 필요한 필드만 골라서 받는다. ex) POST /product/lookup?fields=name,price
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupProducts(@RequestParam(required = false) String fields,
+                                            @RequestBody List<Long> productIds) {
+        log.info("/product/lookup: POST, fields: {}, size: {}", fields, productIds.size());
+        ProductLookupResDTO result = productLookupService.lookup(productIds, fields);
+        CommonResDTO resDTO
+                = new CommonResDTO(HttpStatus.OK, "조회 완료", result);
+
+        return ResponseEntity.ok().body(resDTO);
+    }
+
+    // 주문 한 건의 모든 상품 재고를 한번에 확인하고 차감 (ordering-service 전용)
+    // 상품마다 조회 + 수정 요청을 반복하지 않도록 한번의 요청으로 처리합니다.
+    @PostMapping("/reserveStock")
+    public ResponseEntity<?> reserveStock(@RequestParam(required = false) String reservationKey,
+                                          @RequestBody List<ProductStockReqDTO> reqList) {
+        log.info("/product/reserveStock: POST, reservationKey: {}, reqList: {}", reservationKey, reqList);
+        List<ProductStockResDTO> results = productService.reserveStock(reservationKey, reqList);
+
+        boolean reserved = results.stream().allMatch(ProductStockResDTO::isSuccess);
+        CommonResDTO resDTO = new CommonResDTO(
+                HttpStatus.OK, reserved ? "재고 차감 완료" : "재고 부족", results);
+
+        return ResponseEntity.ok().body(resDTO);
+    }
+
+    // 핫 상품 지정 (주문이 몰리는 상품의 재고를 Redis에서 관리)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/hot/{prodId}")
+    public ResponseEntity<?> registerHotStock(@PathVariable Long prodId) {
+        log.info("/product/hot/{}: POST", prodId);
+        productService.registerHotStock(prodId);
+
+        CommonResDTO resDTO = new CommonResDTO(HttpStatus.OK, "핫 상품 지정 완료", prodId);
+        return ResponseEntity.ok().body(resDTO);
+    }
+
+    // 핫 상품 지정 해제
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/hot/{prodId}")
+    public ResponseEntity<?> unregisterHotStock(@PathVariable Long prodId) {
+        log.info("/product/hot/{}: DELETE", prodId);
+        productService.unregisterHotStock(prodId);
+
+        CommonResDTO resDTO = new CommonResDTO(HttpStatus.OK, "핫 상품 해제 완료", prodId);
+        return ResponseEntity.ok().body(resDTO);
+    }
+
+    // 누구에게나 같은 응답이므로 public (공유 캐시에 저장 가능)
+    private CacheControl catalogCacheControl() {
+        if (catalogMaxAge.isZero()) {
+            return CacheControl.noStore();
+        }
+        return CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
 }
@@ -0,0 +1,19 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 상품 일괄 조회 결과 (서비스 간 통신용)
+// 상품마다 필드 이름을 반복하지 않도록 필드 목록은 한번만 주고, 상품은 값 배열로 전달한다.
+// ex) {"fields": ["id", "name"], "rows": [[1, "키보드"], [2, "마우스"]]}
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductLookupResDTO {
+
+    private List<String> fields; // rows의 각 값이 어떤 필드인지 (첫 번째는 항상 id)
+    private List<List<Object>> rows; // 존재하지 않는 상품은 포함되지 않음
+
+}
@@ -1,10 +1,14 @@
 package com.playdata.productservice.product.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor // 캐시(JSON)에서 다시 객체로 만들 때 필요
+@AllArgsConstructor
 public class ProductResDTO {
 
     private Long id;
@@ -13,4 +17,5 @@ public class ProductResDTO {
     private int price;
     private int stockQuantity;
     private String imagePath;
+    private String thumbnailPath; // 없으면 imagePath를 사용
 }
@@ -0,0 +1,18 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 상품 목록 한 페이지 (keyset 페이징)
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSliceResDTO {
+
+    private List<ProductResDTO> products;
+    private Long nextCursor; // 다음 페이지 요청 시 cursor로 전달할 값 (마지막 페이지면 null)
+    private boolean hasNext;
+
+}
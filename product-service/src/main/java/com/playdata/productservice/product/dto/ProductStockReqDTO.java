@@ -0,0 +1,15 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+// 주문 시 차감할 상품 id와 수량 한 줄
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockReqDTO {
+
+    private Long productId;
+    private int quantity;
+
+}
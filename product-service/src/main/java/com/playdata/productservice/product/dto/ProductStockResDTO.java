@@ -0,0 +1,17 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+// 재고 차감 요청 한 줄에 대한 처리 결과
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockResDTO {
+
+    private Long productId;
+    private int quantity; // 요청한 수량 (같은 상품이 여러 줄이면 합산된 수량)
+    private int stockQuantity; // 처리 후 남은 재고
+    private boolean success; // 재고가 충분했는지 여부
+
+}
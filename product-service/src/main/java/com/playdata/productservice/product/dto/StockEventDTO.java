@@ -0,0 +1,18 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+// 재고 변경 이벤트 한 건 (Redis Stream product:stock:events에 발행)
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockEventDTO {
+
+    private Long productId;
+    private int delta; // 변경량 (차감이면 음수)
+    private int stockQuantity; // 변경 후 재고
+    private long version; // 상품별 재고 버전 (클수록 나중 변경)
+    private String reason; // RESERVE(주문 재고 차감), DECREASE(단건 차감), SET(관리자 수량 변경)
+
+}
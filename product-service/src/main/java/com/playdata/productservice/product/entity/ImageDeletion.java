@@ -0,0 +1,36 @@
+package com.playdata.productservice.product.entity;
+
+import com.playdata.productservice.common.entity.BaseTimeEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// S3에서 지워야 할 이미지 오브젝트 (ImageDeletionQueue가 모아서 삭제)
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_image_deletion",
+        indexes = @Index(name = "idx_image_deletion_next_attempt", columnList = "next_attempt_at"))
+public class ImageDeletion extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1024)
+    private String objectKey;
+
+    // 삭제를 시도한 횟수
+    @Setter
+    private int attempts;
+
+    // 다음 삭제 시도 시각 (처리 중인 항목은 lease만큼 미뤄둔다)
+    @Setter
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+}
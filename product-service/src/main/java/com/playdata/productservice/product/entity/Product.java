@@ -4,6 +4,7 @@ import com.playdata.productservice.common.entity.BaseTimeEntity;
 import com.playdata.productservice.product.dto.ProductResDTO;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @ToString
@@ -11,7 +12,11 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tbl_product")
+@Table(name = "tbl_product", indexes = {
+        // 고아 이미지 정리(ImageDeletionQueue)에서 url로 상품을 찾을 때 사용
+        @Index(name = "idx_product_image_path", columnList = "image_path"),
+        @Index(name = "idx_product_thumbnail_path", columnList = "thumbnail_path")
+})
 public class Product extends BaseTimeEntity {
 
     @Id
@@ -21,10 +26,25 @@ public class Product extends BaseTimeEntity {
     private String name;
     private String category;
     private int price;
-    @Setter
     private int stockQuantity;
+    // 재고가 바뀔 때마다 1씩 올라가는 값 (재고 변경 이벤트의 순서 판단용, StockEventPublisher)
+    // 핫 상품인 동안에는 Redis의 product:stock:version:{id}가 기준값이고, 해제될 때 DB로 옮겨진다.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long stockVersion;
     @Setter // 이미지 경로를 위해서만 setter 세팅
     private String imagePath;
+    private String thumbnailPath; // 목록 화면용 축소 이미지 (등록 직후에는 만들어지는 중이라 null)
+    // 핫 상품 여부 (true면 재고는 Redis 카운터가 기준 -> DB에서 직접 차감하지 않는다, HotStockService)
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean hotStock;
+
+    // 재고 변경은 항상 이 메서드로 (버전을 함께 올린다, row를 잠근 상태에서 호출)
+    public void changeStockQuantity(int stockQuantity) {
+        this.stockQuantity = stockQuantity;
+        this.stockVersion++;
+    }
 
     public ProductResDTO toDTO() {
         return ProductResDTO.builder()
@@ -34,6 +54,7 @@ public class Product extends BaseTimeEntity {
                 .price(price)
                 .stockQuantity(stockQuantity)
                 .imagePath(imagePath)
+                .thumbnailPath(thumbnailPath)
                 .build();
     }
 
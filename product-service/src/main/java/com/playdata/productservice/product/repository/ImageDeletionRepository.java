@@ -0,0 +1,25 @@
+package com.playdata.productservice.product.repository;
+
+import com.playdata.productservice.product.entity.ImageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageDeletionRepository extends JpaRepository<ImageDeletion, Long> {
+
+    // 삭제할 차례가 된 항목을 잠그고 가져온다.
+    // FOR UPDATE SKIP LOCKED -> 다른 서버가 잠근 항목은 건너뛴다. (여러 서버가 같은 키를 중복 삭제하지 않음)
+    @Query(value = "SELECT * FROM tbl_image_deletion " +
+            "WHERE next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ImageDeletion> findTargetsForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT MIN(d.createTime) FROM ImageDeletion d")
+    Optional<LocalDateTime> findOldestCreateTime();
+}
@@ -1,22 +1,125 @@
 package com.playdata.productservice.product.repository;
 
 import com.playdata.productservice.product.entity.Product;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // 검색 조건(카테고리, 검색어)에 따른 페이징
+    // 응답에 전체 개수가 필요 없으므로 Page 대신 Slice로 받는다. (COUNT 쿼리 없이 size + 1개만 조회)
+    Slice<Product> findAllBy(Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.category LIKE %?1%")
-    Page<Product> findByCategoryValue(String keyword, Pageable pageable);
+    Slice<Product> findByCategoryValue(String keyword, Pageable pageable);
 
     @Query("SELECT p FROM Product p WHERE p.name LIKE %?1%")
-    Page<Product> findByNameValue(String keyword, Pageable pageable);
+    Slice<Product> findByNameValue(String keyword, Pageable pageable);
+
+    // FULLTEXT(ngram) 인덱스 검색 (db/product-search-index.sql로 만든 인덱스 사용)
+    // query는 boolean mode 검색식 ex) "+무선* +이어*", 관련도가 높은 순으로 정렬
+    @Query(value = "SELECT * FROM tbl_product " +
+            "WHERE MATCH(name) AGAINST(:query IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(name) AGAINST(:query IN BOOLEAN MODE) DESC, id DESC",
+            nativeQuery = true)
+    Slice<Product> searchByName(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT * FROM tbl_product " +
+            "WHERE MATCH(category) AGAINST(:query IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(category) AGAINST(:query IN BOOLEAN MODE) DESC, id DESC",
+            nativeQuery = true)
+    Slice<Product> searchByCategory(@Param("query") String query, Pageable pageable);
+
+    // keyset 페이징: lastId(이전 페이지의 마지막 상품 id) 다음 상품부터 limit개
+    // OFFSET을 사용하지 않기 때문에 뒤쪽 페이지로 가도 앞의 행들을 읽고 버리지 않는다.
+    @Query("SELECT p FROM Product p WHERE p.id > :lastId ORDER BY p.id")
+    List<Product> findAfter(@Param("lastId") Long lastId, Limit limit);
+
+    @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% AND p.id > :lastId ORDER BY p.id")
+    List<Product> findByNameValueAfter(@Param("keyword") String keyword, @Param("lastId") Long lastId, Limit limit);
+
+    @Query("SELECT p FROM Product p WHERE p.category LIKE %:keyword% AND p.id > :lastId ORDER BY p.id")
+    List<Product> findByCategoryValueAfter(@Param("keyword") String keyword, @Param("lastId") Long lastId, Limit limit);
+
+    @Query(value = "SELECT * FROM tbl_product " +
+            "WHERE MATCH(name) AGAINST(:query IN BOOLEAN MODE) AND id > :lastId " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Product> searchByNameAfter(@Param("query") String query, @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM tbl_product " +
+            "WHERE MATCH(category) AGAINST(:query IN BOOLEAN MODE) AND id > :lastId " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Product> searchByCategoryAfter(@Param("query") String query, @Param("lastId") Long lastId, @Param("limit") int limit);
 
     List<Product> findByIdIn(List<Long> ids);
+
+    // 재고만 조회 (상품 일괄 조회에서 재고는 캐시하지 않고 항상 새로 읽는다) -> [id, stockQuantity]
+    @Query("SELECT p.id, p.stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockQuantitiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 재고 차감 대상 상품들을 한번의 SELECT ... FOR UPDATE로 잠그면서 조회
+    // 항상 id 순서로 잠가야 동시에 들어온 주문끼리 데드락이 나지 않는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // 엔터티를 조회하지 않고, 재고가 충분할 때만 DB가 원자적으로 차감하게 한다.
+    // UPDATE tbl_product SET stock_quantity = stock_quantity - ?, stock_version = stock_version + 1
+    //     WHERE id = ? AND stock_quantity >= ? AND hot_stock = false
+    // 리턴값은 변경된 row 수 -> 1이면 차감 성공, 0이면 재고 부족(혹은 없는 상품, 핫 상품)
+    // 핫 상품의 재고는 Redis 카운터가 기준이므로 DB에서 직접 차감하지 않는다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.stockVersion = p.stockVersion + 1 " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity AND p.hotStock = false")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // 재고에 변경량을 더한다. (핫 상품 재고를 Redis에서 모아서 반영할 때 사용)
+    // 각 변경의 버전은 Redis에서 이미 올렸으므로 stock_version은 건드리지 않는다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :delta WHERE p.id = :id")
+    int addStock(@Param("id") Long id, @Param("delta") int delta);
+
+    // 핫 상품 지정/해제 (HotStockService에서만 호출)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.hotStock = :hotStock WHERE p.id = :id")
+    int updateHotStock(@Param("id") Long id, @Param("hotStock") boolean hotStock);
+
+    // 핫 상품 해제 시 Redis에서 올려둔 재고 버전을 DB로 옮긴다. (버전이 뒤로 가지 않도록 더 클 때만)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockVersion = :version WHERE p.id = :id AND p.stockVersion < :version")
+    int raiseStockVersion(@Param("id") Long id, @Param("version") long version);
+
+    @Query("SELECT p.hotStock FROM Product p WHERE p.id = :id")
+    Optional<Boolean> findHotStockById(@Param("id") Long id);
+
+    // 썸네일 생성이 끝난 후 경로만 변경 (백그라운드 작업에서 호출 -> 자체 트랜잭션 사용)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.thumbnailPath = :thumbnailPath WHERE p.id = :id")
+    int updateThumbnailPath(@Param("id") Long id, @Param("thumbnailPath") String thumbnailPath);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    // 주어진 url 중 상품이 사용하고 있는 것 (원본 이미지 또는 썸네일)
+    @Query("SELECT p.imagePath FROM Product p WHERE p.imagePath IN :urls")
+    List<String> findImagePathsIn(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT p.thumbnailPath FROM Product p WHERE p.thumbnailPath IN :urls")
+    List<String> findThumbnailPathsIn(@Param("urls") Collection<String> urls);
 }
@@ -0,0 +1,131 @@
+package com.playdata.productservice.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/*
+ 상품 검색용 FULLTEXT 인덱스 관리 객체
+
+ LIKE '%검색어%'는 인덱스를 사용할 수 없어서 검색할 때마다 tbl_product 전체를 읽는다.
+ name, category 컬럼에 ngram 파서 FULLTEXT 인덱스를 만들어 두고 MATCH ... AGAINST로 검색한다.
+ (ngram 파서는 띄어쓰기가 없는 한글 상품명도 2글자 단위로 잘라서 색인)
+
+ JPA(ddl-auto)는 FULLTEXT 인덱스를 만들어 주지 않기 때문에 배포 전에 db/product-search-index.sql을 한 번 실행한다.
+ 서버는 인덱스가 있는지만 확인하고, 없으면 기존 LIKE 검색을 사용하다가 인덱스가 생기면 주기적으로 확인해서 전환한다.
+ -> 여러 서버가 동시에 떠도 각자 ALTER TABLE을 실행하지 않는다.
+
+ create-index = true인 환경(로컬 개발 등)에서만 서버가 직접 인덱스를 만든다.
+ 다른 서버가 먼저 만들어서 실패했다면(Duplicate key name) 다시 확인해서 인덱스가 있으면 성공으로 본다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final String NAME_INDEX = "ft_product_name";
+    private static final String CATEGORY_INDEX = "ft_product_category";
+
+    // boolean mode에서 연산자로 쓰이는 문자들 (검색어에 들어오면 제거)
+    private static final String OPERATOR_CHARS = "[+\\-<>()~*\"@]";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 서버가 직접 인덱스를 만들지 여부 (운영에서는 SQL 스크립트로 만들고 false로 둔다.)
+    @Value("${product.search.create-index:false}")
+    private boolean createIndex;
+
+    private volatile boolean available = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            if (createIndex) {
+                createIfAbsent(NAME_INDEX, "name");
+                createIfAbsent(CATEGORY_INDEX, "category");
+            }
+            available = indexesExist();
+            if (!available) {
+                log.warn("상품 검색 인덱스가 없습니다. db/product-search-index.sql을 실행하기 전까지 LIKE 검색을 사용합니다.");
+            }
+        } catch (Exception e) {
+            log.error("상품 검색 인덱스를 확인하지 못했습니다. LIKE 검색을 사용합니다. 오류: {}", e.getMessage());
+        }
+    }
+
+    // 서버가 뜬 뒤에 인덱스가 만들어졌다면 재시작하지 않아도 FULLTEXT 검색으로 전환
+    @Scheduled(fixedDelayString = "${product.search.index-check-interval:60000}",
+            initialDelayString = "${product.search.index-check-interval:60000}")
+    public void recheck() {
+        if (available) {
+            return;
+        }
+        try {
+            if (indexesExist()) {
+                available = true;
+                log.info("상품 검색 인덱스가 확인되어 FULLTEXT 검색을 사용합니다.");
+            }
+        } catch (Exception e) {
+            log.warn("상품 검색 인덱스 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 사용자가 입력한 검색어를 boolean mode 검색식으로 변환
+     * "무선 이어" -> "+무선* +이어*" (모든 단어를 포함, 각 단어는 앞부분만 일치해도 검색)
+     *
+     * @return 검색할 단어가 없으면 null
+     */
+    public String toBooleanQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String query = Arrays.stream(keyword.replaceAll(OPERATOR_CHARS, " ").trim().split("\\s+"))
+                .filter(term -> !term.isBlank())
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+        return query.isEmpty() ? null : query;
+    }
+
+    private boolean indexesExist() {
+        return indexExists(NAME_INDEX) && indexExists(CATEGORY_INDEX);
+    }
+
+    private boolean indexExists(String indexName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'tbl_product' AND index_name = ?",
+                Integer.class, indexName);
+        return count != null && count > 0;
+    }
+
+    private void createIfAbsent(String indexName, String column) {
+        if (indexExists(indexName)) {
+            return;
+        }
+
+        log.info("상품 검색 인덱스 생성: {} ({})", indexName, column);
+        try {
+            jdbcTemplate.execute("ALTER TABLE tbl_product ADD FULLTEXT INDEX "
+                    + indexName + " (" + column + ") WITH PARSER ngram");
+        } catch (Exception e) {
+            // 동시에 뜬 다른 서버가 먼저 만들었다면 성공으로 본다.
+            if (!indexExists(indexName)) {
+                throw e;
+            }
+            log.info("다른 서버가 상품 검색 인덱스를 먼저 만들었습니다: {}", indexName);
+        }
+    }
+}
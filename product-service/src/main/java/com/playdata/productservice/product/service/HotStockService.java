@@ -0,0 +1,659 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.dto.ProductResDTO;
+import com.playdata.productservice.product.dto.ProductStockResDTO;
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ 핫 상품(주문이 몰리는 상품) 재고를 Redis 카운터로 관리하는 객체
+
+ - 핫 상품으로 지정된 상품의 재고는 Redis의 product:stock:{id} 카운터가 기준값이 된다.
+ - 재고 확인 + 차감은 Lua 스크립트로 Redis 안에서 원자적으로 처리 (MySQL row lock 경합 없음)
+ - 차감된 수량은 product:stock:pending 해시에 누적해 두었다가
+   주기적으로 한번에 모아서 tbl_product에 반영한다. (write-behind)
+ - 재고 버전(재고 변경 이벤트의 순서 판단용)도 핫 상품인 동안에는 product:stock:version:{id}에서 올린다.
+   카운터를 만들 때 DB의 stock_version에서 이어받고, 해제할 때 다시 DB로 옮긴다.
+ - 항상 "Redis 카운터 = DB 재고 + 아직 DB에 반영되지 않은 변경량" 이 성립해야 하고,
+   reconcile()이 주기적으로 이 값을 검증한다.
+ - 변경량을 DB로 옮기는 작업(반영, 해제)과 카운터를 새로 만드는 작업은 flush 락을 잡고 실행한다.
+   -> 카운터를 "DB 재고 + 변경량"으로 만드는 도중에 변경량이 DB로 옮겨져서 두 번 계산되는 일이 없다.
+ - 해제된 상품은 product:stock:evicted:{id} 표시를 남겨서, 핫 상품 목록이 아직 갱신되지 않은
+   다른 서버가 카운터를 다시 만들지 못하게 한다.
+
+ 서버마다 들고 있는 핫 상품 목록(hotIds)은 주기적으로 갱신되므로 잠깐 서로 다를 수 있다.
+ 그래서 어느 쪽 재고를 차감할지는 DB의 핫 상품 표시(tbl_product.hot_stock)로 최종 판단한다.
+ - 지정: DB 표시를 먼저 커밋한 후 DB 재고로 카운터를 만든다.
+   -> 이후 DB 경로의 차감은 거절되고(ProductService가 Redis 카운터로 다시 처리), 진행 중이던 DB 차감은
+      row lock 때문에 표시보다 먼저 끝나므로 카운터에 빠짐없이 포함된다.
+ - 해제: 상품 row를 잠근 트랜잭션에서 카운터를 지우고 변경량 반영 + 표시 해제를 함께 커밋한다.
+   -> 그 사이 DB 경로로 들어온 차감은 row lock에서 기다렸다가 반영이 끝난 재고로 처리된다.
+ - 이 객체의 DB 작업은 항상 별도 트랜잭션(REQUIRES_NEW)으로 실행한다.
+   -> 호출한 쪽 트랜잭션이 롤백되더라도 Redis에서 꺼낸 변경량이 DB 반영과 함께 사라지지 않는다.
+
+ 주의: write-behind 방식이라 Redis 데이터가 유실되면 아직 반영되지 않은 차감량도 함께 유실된다.
+ 운영 환경의 Redis는 AOF 등 영속화 설정을 켜 두어야 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotStockService {
+
+    private static final String STOCK_KEY_PREFIX = "product:stock:"; // 상품별 재고 카운터
+    private static final String HOT_SET_KEY = "product:stock:hot"; // 핫 상품 id 목록
+    private static final String PENDING_KEY = "product:stock:pending"; // DB에 반영되지 않은 변경량 (id -> delta)
+    private static final String FLUSH_LOCK_KEY = "product:stock:flush-lock"; // 여러 서버가 동시에 반영하지 않도록
+    private static final String EVICTED_KEY_PREFIX = "product:stock:evicted:"; // 핫 상품에서 해제된 상품 표시
+    private static final String VERSION_KEY_PREFIX = "product:stock:version:"; // 상품별 재고 버전
+
+    // 모든 상품의 재고를 확인한 후, 전부 충분할 때만 차감하는 스크립트
+    // KEYS: 재고 카운터들 + 버전 키들 + 마지막에 pending 해시, ARGV: 차감 수량들 + 상품 id들
+    // 리턴: {1(성공) | 0(재고 부족) | -1(카운터 없음), 처리 후 재고..., 처리 후 버전...(실패면 0)}
+    private static final RedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local n = (#KEYS - 1) / 2
+            local levels = {}
+            local versions = {}
+            local ok = 1
+            for i = 1, n do
+                local stock = redis.call('GET', KEYS[i])
+                if not stock then
+                    return {-1}
+                end
+                levels[i] = tonumber(stock)
+                if levels[i] < tonumber(ARGV[i]) then
+                    ok = 0
+                end
+            end
+            if ok == 1 then
+                for i = 1, n do
+                    levels[i] = redis.call('DECRBY', KEYS[i], ARGV[i])
+                    versions[i] = redis.call('INCR', KEYS[n + i])
+                    redis.call('HINCRBY', KEYS[2 * n + 1], ARGV[n + i], -tonumber(ARGV[i]))
+                end
+            end
+            local result = {ok}
+            for i = 1, n do
+                table.insert(result, levels[i])
+            end
+            for i = 1, n do
+                table.insert(result, versions[i] or 0)
+            end
+            return result
+            """, List.class);
+
+    // 재고를 더하는 스크립트 (차감 취소, 관리자 수량 변경에 사용)
+    // KEYS[1]: 재고 카운터, KEYS[2]: pending 해시, KEYS[3]: 버전 키, ARGV[1]: 변경량, ARGV[2]: 상품 id
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return nil
+            end
+            redis.call('HINCRBY', KEYS[2], ARGV[2], ARGV[1])
+            redis.call('INCR', KEYS[3])
+            return redis.call('INCRBY', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    // 재고를 특정 값으로 변경 -> 현재 값과의 차이만큼을 변경량으로 기록
+    // KEYS[1]: 재고 카운터, KEYS[2]: pending 해시, KEYS[3]: 버전 키, ARGV[1]: 변경할 재고, ARGV[2]: 상품 id
+    // 리턴: {변경량, 변경 후 버전}
+    private static final RedisScript<List> SET_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current then
+                return nil
+            end
+            local delta = tonumber(ARGV[1]) - tonumber(current)
+            redis.call('HINCRBY', KEYS[2], ARGV[2], delta)
+            redis.call('SET', KEYS[1], ARGV[1])
+            return {delta, redis.call('INCR', KEYS[3])}
+            """, List.class);
+
+    // pending 해시를 통째로 꺼내고 비우는 스크립트 (꺼내는 사이에 들어온 차감이 유실되지 않도록 원자적으로)
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>("""
+            local entries = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            return entries
+            """, List.class);
+
+    // 핫 상품 해제 시 카운터와 해당 상품의 pending 값을 함께 꺼내고 지우는 스크립트
+    // KEYS[1]: 재고 카운터, KEYS[2]: pending 해시, KEYS[3]: 버전 키, ARGV[1]: 상품 id
+    // 리턴: {카운터 존재 여부(1/0), 카운터, 변경량, 버전} -> DB 반영에 실패하면 그대로 되돌린다. (RESTORE_SCRIPT)
+    private static final RedisScript<List> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('GET', KEYS[1])
+            local delta = redis.call('HGET', KEYS[2], ARGV[1])
+            local version = redis.call('GET', KEYS[3])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            redis.call('DEL', KEYS[1], KEYS[3])
+            return {stock and 1 or 0, tonumber(stock or '0'), tonumber(delta or '0'), tonumber(version or '0')}
+            """, List.class);
+
+    // EVICT_SCRIPT로 꺼낸 카운터, 변경량, 버전을 되돌리는 스크립트
+    // KEYS[1]: 재고 카운터, KEYS[2]: pending 해시, KEYS[3]: 버전 키
+    // ARGV: 카운터 존재 여부, 카운터, 변경량, 버전, 상품 id
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[1] == '1' then
+                redis.call('SET', KEYS[1], ARGV[2], 'NX')
+            end
+            if tonumber(ARGV[3]) ~= 0 then
+                redis.call('HINCRBY', KEYS[2], ARGV[5], ARGV[3])
+            end
+            if tonumber(ARGV[4]) ~= 0 then
+                redis.call('SET', KEYS[3], ARGV[4], 'NX')
+            end
+            return 1
+            """, Long.class);
+
+    // 카운터가 없을 때 "DB 재고 + 아직 반영되지 않은 변경량"으로 만드는 스크립트 (flush 락 안에서 실행)
+    // 버전은 DB의 stock_version에서 이어받는다. (이미 더 큰 값이 있다면 그대로 둔다.)
+    // KEYS[1]: 재고 카운터, KEYS[2]: pending 해시, KEYS[3]: 해제 표시, KEYS[4]: 버전 키
+    // ARGV[1]: DB 재고, ARGV[2]: 상품 id, ARGV[3]: DB 재고 버전
+    // 리턴: 1(카운터 있음) | -1(핫 상품에서 해제된 상품이라 만들지 않음)
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[3]) == 1 then
+                return -1
+            end
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[2]) or '0')
+                redis.call('SET', KEYS[1], tonumber(ARGV[1]) + pending)
+                local version = tonumber(redis.call('GET', KEYS[4]) or '0')
+                if version < tonumber(ARGV[3]) then
+                    redis.call('SET', KEYS[4], ARGV[3])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    // 카운터와 pending 값을 같은 시점 기준으로 읽는 스크립트
+    private static final RedisScript<List> SNAPSHOT_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then
+                return {}
+            end
+            return {tonumber(stock), tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')}
+            """, List.class);
+
+    // 카운터가 예상한 값 그대로일 때만 교정값으로 바꾸는 스크립트
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // 내가 잡은 락일 때만 해제
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // yml에 미리 지정해 둔 핫 상품 id 목록 (ex: product.hot-stock.ids: 1,2,3)
+    @Value("${product.hot-stock.ids:}")
+    private List<Long> configuredHotIds;
+
+    @Value("${product.hot-stock.lock-timeout:30s}")
+    private Duration lockTimeout;
+
+    // 카운터를 만들거나 해제할 때 flush 락을 기다리는 최대 시간
+    @Value("${product.hot-stock.lock-wait:3s}")
+    private Duration lockWait;
+
+    // 해제 표시를 유지하는 시간 (다른 서버들이 핫 상품 목록을 갱신할 때까지, refresh-interval보다 충분히 길게)
+    @Value("${product.hot-stock.evicted-ttl:1m}")
+    private Duration evictedTtl;
+
+    // 매 요청마다 Redis에 핫 상품 여부를 묻지 않도록 서버 메모리에 들고 있는 목록
+    private final Set<Long> hotIds = ConcurrentHashMap.newKeySet();
+
+    // 락 소유자 구분용 (서버마다 다른 값)
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // DB 작업용 별도 트랜잭션
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    private void init() {
+        requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isHot(Long productId) {
+        return hotIds.contains(productId);
+    }
+
+    // DB에 핫 상품으로 표시된 상품을 발견 (이 서버의 목록이 아직 갱신되기 전) -> 바로 Redis 카운터를 사용
+    public void markHot(Long productId) {
+        hotIds.add(productId);
+    }
+
+    // 서버가 뜰 때 핫 상품 카운터가 Redis에 없다면 DB 재고로 채워 넣는다. (cold-start)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            for (Long productId : configuredHotIds) {
+                if (!Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(HOT_SET_KEY, productId.toString()))) {
+                    register(productId);
+                }
+            }
+            refreshHotIds();
+            hotIds.forEach(this::loadIfAbsent);
+            log.info("hot stock products loaded: {}", hotIds);
+        } catch (Exception e) {
+            // Redis 장애로 서버 기동까지 실패하지 않도록 -> 핫 상품 없이 DB 재고로 동작
+            log.error("failed to load hot stock products: {}", e.getMessage());
+        }
+    }
+
+    // 다른 서버에서 등록/해제한 핫 상품 목록을 주기적으로 동기화
+    @Scheduled(fixedDelayString = "${product.hot-stock.refresh-interval:5000}")
+    public void refreshHotIds() {
+        Set<String> members = stringRedisTemplate.opsForSet().members(HOT_SET_KEY);
+        Set<Long> latest = new HashSet<>();
+        if (members != null) {
+            members.forEach(member -> latest.add(Long.valueOf(member)));
+        }
+        hotIds.retainAll(latest);
+        hotIds.addAll(latest);
+    }
+
+    // 상품을 핫 상품으로 지정하고 현재 DB 재고로 카운터를 만든다.
+    public void register(Long productId) {
+        withFlushLockWaiting(() -> {
+            stringRedisTemplate.delete(evictedKey(productId));
+            // DB 표시부터 커밋 -> 이후 DB 경로의 차감은 거절, 진행 중이던 차감은 row lock으로 먼저 끝난다.
+            requiresNew.executeWithoutResult(status -> {
+                if (productRepository.updateHotStock(productId, true) == 0) {
+                    throw new EntityNotFoundException("Product with id: " + productId + " not found");
+                }
+            });
+            // 표시가 커밋된 후에 읽은 DB 재고로 카운터를 만든다. (다른 서버의 DB 차감도 모두 포함된 값)
+            loadUnderLock(productId);
+            stringRedisTemplate.opsForSet().add(HOT_SET_KEY, productId.toString());
+            hotIds.add(productId);
+        });
+    }
+
+    // 핫 상품 지정을 해제하고, 아직 반영되지 않은 변경량을 DB에 반영한 후 카운터를 지운다.
+    public void unregister(Long productId) {
+        withFlushLockWaiting(() -> evict(productId));
+    }
+
+    /**
+     * 핫 상품들의 재고를 Redis에서 한번에 확인하고 차감 (하나라도 부족하면 아무것도 차감하지 않음)
+     * 그 사이 핫 상품에서 해제된 상품이 있다면 아무것도 차감하지 않고 해당 상품 id를 알려준다.
+     * (호출한 쪽에서 그 상품들을 DB 재고로 다시 처리)
+     *
+     * @param requested - 상품 id별 차감 수량
+     * @return - 상품별 처리 결과 또는 핫 상품이 아닌 상품 id
+     */
+    public ReserveResult reserve(Map<Long, Integer> requested) {
+        List<Long> productIds = new ArrayList<>(requested.keySet());
+        List<?> result = executeReserve(productIds, requested);
+
+        if (((Number) result.get(0)).intValue() == -1) {
+            // 카운터가 없는 상품이 있다 -> DB 재고로 채운 후 한번만 재시도
+            Set<Long> notHot = new HashSet<>();
+            productIds.forEach(productId -> {
+                if (!loadIfAbsent(productId)) {
+                    notHot.add(productId);
+                }
+            });
+            if (!notHot.isEmpty()) {
+                return new ReserveResult(List.of(), notHot, Map.of());
+            }
+            result = executeReserve(productIds, requested);
+            if (((Number) result.get(0)).intValue() == -1) {
+                throw new IllegalStateException("hot stock counter is missing: " + productIds);
+            }
+        }
+
+        List<ProductStockResDTO> results = new ArrayList<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            int quantity = requested.get(productId);
+            int level = ((Number) result.get(i + 1)).intValue();
+            boolean success = ((Number) result.get(0)).intValue() == 1;
+            if (success) {
+                versions.put(productId, ((Number) result.get(productIds.size() + i + 1)).longValue());
+            }
+
+            results.add(ProductStockResDTO.builder()
+                    .productId(productId)
+                    .quantity(quantity)
+                    .stockQuantity(level)
+                    // 전체가 실패한 경우에도 어떤 상품이 부족했는지는 알려준다.
+                    .success(success || level >= quantity)
+                    .build());
+        }
+        return new ReserveResult(results, Set.of(), versions);
+    }
+
+    // 차감했던 재고를 되돌린다. (같이 처리하던 DB 재고 차감이 롤백된 경우)
+    public void release(Map<Long, Integer> reserved) {
+        reserved.forEach((productId, quantity) -> add(productId, quantity));
+    }
+
+    // 관리자가 재고를 특정 값으로 변경 -> 차이만큼을 변경량으로 기록해 두고 DB에는 다음 반영 때 적용
+    // 리턴: 변경 전 재고와의 차이와 변경 후 버전, 핫 상품에서 해제된 상품이라면 null (DB 재고를 변경해야 함)
+    public StockChange setStock(Long productId, int stockQuantity) {
+        if (!loadIfAbsent(productId)) {
+            return null;
+        }
+        List<?> changed = stringRedisTemplate.execute(SET_SCRIPT,
+                List.of(stockKey(productId), PENDING_KEY, versionKey(productId)),
+                String.valueOf(stockQuantity), productId.toString());
+        if (changed == null || changed.isEmpty()) {
+            return null;
+        }
+        return new StockChange(((Number) changed.get(0)).intValue(), ((Number) changed.get(1)).longValue());
+    }
+
+    // 핫 상품의 현재 재고를 조회 (상품 id -> 재고)
+    public Map<Long, Integer> getStockLevels(Collection<Long> productIds) {
+        List<Long> hot = productIds.stream().filter(this::isHot).distinct().toList();
+        Map<Long, Integer> levels = new HashMap<>();
+        if (hot.isEmpty()) {
+            return levels;
+        }
+
+        List<String> values = stringRedisTemplate.opsForValue()
+                .multiGet(hot.stream().map(this::stockKey).toList());
+        for (int i = 0; i < hot.size(); i++) {
+            if (values != null && values.get(i) != null) {
+                levels.put(hot.get(i), Integer.valueOf(values.get(i)));
+            }
+        }
+        return levels;
+    }
+
+    // DB에서 읽어온 상품 정보의 재고를 Redis 카운터 값으로 덮어쓴다. (핫 상품은 Redis가 최신값)
+    public void applyStockLevels(List<ProductResDTO> dtoList) {
+        Map<Long, Integer> levels = getStockLevels(dtoList.stream().map(ProductResDTO::getId).toList());
+        if (levels.isEmpty()) {
+            return;
+        }
+        dtoList.forEach(dto -> {
+            Integer level = levels.get(dto.getId());
+            if (level != null) {
+                dto.setStockQuantity(level);
+            }
+        });
+    }
+
+    // 누적된 변경량을 주기적으로 모아서 DB에 한번에 반영 (write-behind)
+    @Scheduled(fixedDelayString = "${product.hot-stock.flush-interval:1000}")
+    public void flush() {
+        withFlushLock(this::drainToDatabase);
+    }
+
+    // 주기적으로 Redis 카운터와 DB 재고를 비교해서 어긋난 값을 바로잡는다.
+    @Scheduled(fixedDelayString = "${product.hot-stock.reconcile-interval:60000}")
+    public void reconcile() {
+        withFlushLock(() -> {
+            // 먼저 반영할 수 있는 변경량은 전부 반영
+            drainToDatabase();
+
+            for (Long productId : new ArrayList<>(hotIds)) {
+                List<?> snapshot = stringRedisTemplate.execute(SNAPSHOT_SCRIPT,
+                        List.of(stockKey(productId), PENDING_KEY), productId.toString());
+                if (snapshot == null || snapshot.isEmpty()) {
+                    try {
+                        loadUnderLock(productId);
+                    } catch (Exception e) {
+                        log.warn("hot stock reload skipped. productId: {}, error: {}", productId, e.getMessage());
+                    }
+                    continue;
+                }
+
+                long counter = ((Number) snapshot.get(0)).longValue();
+                long pending = ((Number) snapshot.get(1)).longValue();
+                Integer dbStock = productRepository.findStockQuantityById(productId).orElse(null);
+                if (dbStock == null) {
+                    // 상품이 지워졌다면 핫 상품에서도 제거
+                    try {
+                        evict(productId);
+                    } catch (Exception e) {
+                        log.warn("hot stock evict skipped. productId: {}, error: {}", productId, e.getMessage());
+                    }
+                    continue;
+                }
+
+                long expected = dbStock + pending;
+                if (counter != expected) {
+                    log.warn("hot stock mismatch! productId: {}, redis: {}, db: {}, pending: {}",
+                            productId, counter, dbStock, pending);
+                    // 비교하는 사이에 주문이 들어왔다면 교정하지 않고 다음 주기에 다시 확인
+                    stringRedisTemplate.execute(COMPARE_AND_SET_SCRIPT, List.of(stockKey(productId)),
+                            String.valueOf(counter), String.valueOf(expected));
+                }
+            }
+        });
+    }
+
+    // flush 락 안에서 호출
+    // 상품 row를 잠근 트랜잭션에서 카운터와 변경량을 한번에 꺼내서 지우고, 변경량 반영 + 핫 상품 표시 해제를 함께 커밋한다.
+    // DB 반영에 실패하면 카운터와 변경량을 되돌려서 핫 상품 상태를 그대로 유지한다.
+    private void evict(Long productId) {
+        // 목록이 아직 갱신되지 않은 서버가 카운터를 다시 만들지 못하도록 해제 표시부터 남긴다.
+        stringRedisTemplate.opsForValue().set(evictedKey(productId), "1", evictedTtl);
+        stringRedisTemplate.opsForSet().remove(HOT_SET_KEY, productId.toString());
+        hotIds.remove(productId);
+
+        List<Long> taken = new ArrayList<>(); // {카운터 존재 여부, 카운터, 변경량, 버전}
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                boolean exists = !productRepository.findByIdInForUpdate(List.of(productId)).isEmpty();
+                List<?> evicted = stringRedisTemplate.execute(EVICT_SCRIPT,
+                        List.of(stockKey(productId), PENDING_KEY, versionKey(productId)), productId.toString());
+                evicted.forEach(value -> taken.add(((Number) value).longValue()));
+                if (!exists) {
+                    return; // 지워진 상품 -> 반영할 곳이 없다.
+                }
+                if (taken.get(2) != 0) {
+                    productRepository.addStock(productId, taken.get(2).intValue());
+                }
+                if (taken.get(3) != 0) {
+                    // 이후 DB 경로의 변경은 Redis에서 올린 버전 다음부터 이어진다.
+                    productRepository.raiseStockVersion(productId, taken.get(3));
+                }
+                productRepository.updateHotStock(productId, false);
+            });
+            log.debug("hot stock evicted. productId: {}, delta: {}", productId, taken);
+        } catch (RuntimeException e) {
+            log.error("hot stock evict failed, restoring counter. productId: {}, taken: {}, error: {}",
+                    productId, taken, e.getMessage());
+            if (!taken.isEmpty()) {
+                stringRedisTemplate.execute(RESTORE_SCRIPT,
+                        List.of(stockKey(productId), PENDING_KEY, versionKey(productId)),
+                        String.valueOf(taken.get(0)), String.valueOf(taken.get(1)),
+                        String.valueOf(taken.get(2)), String.valueOf(taken.get(3)), productId.toString());
+            }
+            stringRedisTemplate.delete(evictedKey(productId));
+            stringRedisTemplate.opsForSet().add(HOT_SET_KEY, productId.toString());
+            hotIds.add(productId);
+            throw e;
+        }
+    }
+
+    private List<?> executeReserve(List<Long> productIds, Map<Long, Integer> requested) {
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        productIds.forEach(productId -> keys.add(stockKey(productId)));
+        productIds.forEach(productId -> keys.add(versionKey(productId)));
+        keys.add(PENDING_KEY);
+        productIds.forEach(productId -> args.add(String.valueOf(requested.get(productId))));
+        productIds.forEach(productId -> args.add(productId.toString()));
+
+        return stringRedisTemplate.execute(RESERVE_SCRIPT, keys, args.toArray());
+    }
+
+    private void add(Long productId, int quantity) {
+        stringRedisTemplate.execute(ADD_SCRIPT, List.of(stockKey(productId), PENDING_KEY, versionKey(productId)),
+                String.valueOf(quantity), productId.toString());
+    }
+
+    // 카운터가 없을 때만 DB 재고로 채운다. (이미 있다면 Redis 값이 최신이므로 건드리지 않음)
+    // 리턴: 카운터가 있으면 true, 핫 상품이 아니라면 false
+    private boolean loadIfAbsent(Long productId) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(stockKey(productId)))) {
+            return true;
+        }
+        return withFlushLockWaiting(() -> loadUnderLock(productId));
+    }
+
+    // flush 락 안에서 호출 -> DB 재고를 읽고 카운터를 만드는 사이에 변경량이 DB로 옮겨지지 않는다.
+    // 리턴: 카운터가 있으면 true, 핫 상품에서 해제된 상품이라면 false
+    private boolean loadUnderLock(Long productId) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(stockKey(productId)))) {
+            return true;
+        }
+        // 호출한 쪽 트랜잭션의 영속성 컨텍스트에 남아있는 값이 아닌, 커밋된 최신 값을 읽는다.
+        Product product = requiresNew.execute(status -> productRepository.findById(productId).orElseThrow(
+                () -> new EntityNotFoundException("Product with id: " + productId + " not found")
+        ));
+        if (!product.isHotStock()) {
+            // 다른 서버에서 해제된 핫 상품 -> 이 서버도 바로 DB 재고를 사용하도록
+            hotIds.remove(productId);
+            return false;
+        }
+        Long loaded = stringRedisTemplate.execute(LOAD_SCRIPT,
+                List.of(stockKey(productId), PENDING_KEY, evictedKey(productId), versionKey(productId)),
+                String.valueOf(product.getStockQuantity()), productId.toString(),
+                String.valueOf(product.getStockVersion()));
+        if (loaded != null && loaded == -1) {
+            hotIds.remove(productId);
+            return false;
+        }
+        return true;
+    }
+
+    private void drainToDatabase() {
+        List<?> entries = stringRedisTemplate.execute(DRAIN_SCRIPT, List.of(PENDING_KEY));
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        // HGETALL 결과는 [field1, value1, field2, value2 ...] 형태
+        Map<Long, Long> deltas = new HashMap<>();
+        for (int i = 0; i < entries.size(); i += 2) {
+            long delta = Long.parseLong(entries.get(i + 1).toString());
+            if (delta != 0) {
+                deltas.put(Long.valueOf(entries.get(i).toString()), delta);
+            }
+        }
+
+        try {
+            applyToDatabase(deltas);
+        } catch (Exception e) {
+            // DB 반영에 실패하면 꺼냈던 변경량을 다시 쌓아두고 다음 주기에 재시도
+            log.error("hot stock flush failed, restoring pending deltas: {}", e.getMessage());
+            deltas.forEach((productId, delta) -> stringRedisTemplate.opsForHash()
+                    .increment(PENDING_KEY, productId.toString(), delta));
+        }
+    }
+
+    private void applyToDatabase(Map<Long, Long> deltas) {
+        requiresNew.executeWithoutResult(status ->
+                deltas.forEach((productId, delta) ->
+                        productRepository.addStock(productId, delta.intValue())));
+        log.debug("hot stock flushed: {}", deltas);
+    }
+
+    // 여러 서버 중 한 곳에서만 DB 반영/검증 작업을 하도록 Redis 락을 잡고 실행
+    private void withFlushLock(Runnable task) {
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(FLUSH_LOCK_KEY, instanceId, lockTimeout);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), instanceId);
+        }
+    }
+
+    private void withFlushLockWaiting(Runnable task) {
+        withFlushLockWaiting(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    // 락을 잡을 때까지 lock-wait 동안 기다렸다가 실행 (카운터 생성/해제처럼 건너뛸 수 없는 작업)
+    private <T> T withFlushLockWaiting(Supplier<T> task) {
+        long deadline = System.nanoTime() + lockWait.toNanos();
+        while (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(FLUSH_LOCK_KEY, instanceId, lockTimeout))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("hot stock lock is busy, try again later");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for hot stock lock");
+            }
+        }
+        try {
+            return task.get();
+        } finally {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), instanceId);
+        }
+    }
+
+    private String evictedKey(Long productId) {
+        return EVICTED_KEY_PREFIX + productId;
+    }
+
+    private String stockKey(Long productId) {
+        return STOCK_KEY_PREFIX + productId;
+    }
+
+    private String versionKey(Long productId) {
+        return VERSION_KEY_PREFIX + productId;
+    }
+
+    // reserve() 결과
+    @Getter
+    @AllArgsConstructor
+    public static class ReserveResult {
+        private final List<ProductStockResDTO> results; // 상품별 처리 결과 (notHot이 있다면 비어 있음)
+        private final Set<Long> notHot; // 핫 상품에서 해제되어 DB 재고로 처리해야 하는 상품
+        private final Map<Long, Long> versions; // 차감에 성공한 상품의 변경 후 재고 버전
+    }
+
+    // setStock() 결과
+    @Getter
+    @AllArgsConstructor
+    public static class StockChange {
+        private final int delta; // 변경 전 재고와의 차이
+        private final long version; // 변경 후 재고 버전
+    }
+}
@@ -0,0 +1,232 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.common.configs.AwsS3Config;
+import com.playdata.productservice.product.entity.ImageDeletion;
+import com.playdata.productservice.product.repository.ImageDeletionRepository;
+import com.playdata.productservice.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ S3 이미지 삭제 대기열
+
+ 상품 삭제 트랜잭션 안에서 S3를 직접 호출하면 S3 응답을 기다리는 동안 DB 트랜잭션이 열려 있고,
+ S3 장애 시 상품 삭제까지 실패한다. 그래서 상품 삭제와 같은 트랜잭션에서 tbl_image_deletion에
+ 지울 오브젝트 키만 기록해 두고(상품 삭제가 롤백되면 기록도 함께 롤백), 스케줄러가 모아서 지운다.
+
+ 1. 짧은 트랜잭션에서 삭제할 항목을 FOR UPDATE SKIP LOCKED로 잠그고 next_attempt_at을 lease만큼 미뤄둔 뒤 커밋
+ 2. 트랜잭션 밖에서 DeleteObjects로 최대 1000개씩 한번에 삭제
+ 3. 성공한 항목은 지우고, 실패한 항목은 지수적으로 늘어나는 간격으로 다시 시도
+
+ 업로드는 됐지만 상품 저장이 실패한 경우처럼 어떤 상품도 사용하지 않는 오브젝트는
+ 고아 이미지 정리(sweepOrphans)가 주기적으로 찾아서 대기열에 넣는다.
+ - 상품 이미지 경로(product.image.key-prefix, 기본 products/) 아래만 검사한다.
+ - 경로를 나누기 전에 버킷 최상위에 올린 이미지가 남아있다면, 먼저 그 경로로 옮긴 후에 켜야 한다. (기본값 꺼짐)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageDeletionQueue {
+
+    private final ImageDeletionRepository imageDeletionRepository;
+    private final ProductRepository productRepository;
+    private final AwsS3Config s3Config;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.image.deletion.batch-size:1000}")
+    private int batchSize;
+
+    // 삭제 중인 항목을 다른 서버가 가져가지 않도록 next_attempt_at을 미뤄두는 시간
+    @Value("${product.image.deletion.lease:2m}")
+    private Duration lease;
+
+    @Value("${product.image.deletion.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    // 업로드 직후 상품이 저장되기 전인 이미지를 고아로 판단하지 않도록, 이 시간이 지난 오브젝트만 검사
+    @Value("${product.image.orphan-sweep.min-age:1d}")
+    private Duration orphanMinAge;
+
+    @Value("${product.image.orphan-sweep.enabled:false}")
+    private boolean orphanSweepEnabled;
+
+    // actuator(/actuator/metrics)로 확인할 수 있는 지표
+    private final AtomicLong queueDepth = new AtomicLong(); // 삭제 대기 중인 오브젝트 수
+    private final AtomicLong oldestAgeSeconds = new AtomicLong(); // 가장 오래 대기 중인 항목의 대기 시간(초)
+
+    @PostConstruct
+    private void registerMetrics() {
+        Gauge.builder("product.image.deletion.queue.depth", queueDepth, AtomicLong::get)
+                .description("S3 삭제 대기 중인 이미지 수")
+                .register(meterRegistry);
+        Gauge.builder("product.image.deletion.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("가장 오래 삭제되지 못한 이미지의 대기 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이미지 url들을 삭제 대기열에 추가 (null은 무시)
+     * 호출한 쪽의 트랜잭션에 참여하므로, 그 트랜잭션이 롤백되면 삭제도 취소된다.
+     */
+    public void enqueue(String... imageUrls) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageDeletion> deletions = new ArrayList<>();
+        for (String imageUrl : imageUrls) {
+            if (imageUrl == null) {
+                continue;
+            }
+            try {
+                deletions.add(ImageDeletion.builder()
+                        .objectKey(s3Config.toObjectKey(imageUrl))
+                        .nextAttemptAt(now)
+                        .build());
+            } catch (Exception e) {
+                log.warn("잘못된 이미지 url이라 삭제 대기열에 넣지 않습니다: {}", imageUrl);
+            }
+        }
+        imageDeletionRepository.saveAll(deletions);
+    }
+
+    @Scheduled(fixedDelayString = "${product.image.deletion.interval:10000}")
+    public void drain() {
+        LocalDateTime now = LocalDateTime.now();
+        updateQueueMetrics(now);
+
+        List<ImageDeletion> claimed = transactionTemplate.execute(status -> {
+            List<ImageDeletion> targets = imageDeletionRepository.findTargetsForUpdate(
+                    now, Math.min(batchSize, AwsS3Config.MAX_DELETE_KEYS));
+            targets.forEach(deletion -> deletion.setNextAttemptAt(now.plus(lease)));
+            return targets;
+        });
+
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        Set<String> failedKeys;
+        try {
+            failedKeys = new HashSet<>(s3Config.deleteObjectsFromS3Bucket(
+                    claimed.stream().map(ImageDeletion::getObjectKey).distinct().toList()));
+        } catch (Exception e) {
+            // S3 요청 자체가 실패 -> 전부 다시 시도
+            log.error("S3 이미지 일괄 삭제 실패: {}건, 오류: {}", claimed.size(), e.getMessage());
+            failedKeys = claimed.stream().map(ImageDeletion::getObjectKey).collect(Collectors.toSet());
+        }
+
+        Set<String> failed = failedKeys;
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> succeeded = claimed.stream()
+                    .filter(deletion -> !failed.contains(deletion.getObjectKey()))
+                    .map(ImageDeletion::getId)
+                    .toList();
+            imageDeletionRepository.deleteAllByIdInBatch(succeeded);
+
+            List<ImageDeletion> retries = claimed.stream()
+                    .filter(deletion -> failed.contains(deletion.getObjectKey()))
+                    .toList();
+            retries.forEach(deletion -> {
+                deletion.setAttempts(deletion.getAttempts() + 1);
+                deletion.setNextAttemptAt(LocalDateTime.now().plus(backoff(deletion.getAttempts())));
+            });
+            imageDeletionRepository.saveAll(retries);
+        });
+
+        long failedCount = claimed.stream().filter(deletion -> failed.contains(deletion.getObjectKey())).count();
+        processedCounter("deleted").increment(claimed.size() - failedCount);
+        processedCounter("failed").increment(failedCount);
+    }
+
+    /**
+     * 고아 이미지 정리
+     * 버킷의 상품 이미지 경로 아래 오브젝트를 페이지(1000개) 단위로 읽으면서, 어떤 상품의 이미지/썸네일로도 사용되지 않는 것을 대기열에 넣는다.
+     * 여러 서버가 동시에 실행해도 같은 키가 대기열에 두 번 들어갈 뿐, 삭제 결과는 같다.
+     */
+    @Scheduled(fixedDelayString = "${product.image.orphan-sweep.interval:21600000}",
+            initialDelayString = "${product.image.orphan-sweep.initial-delay:600000}")
+    public void sweepOrphans() {
+        if (!orphanSweepEnabled) {
+            return;
+        }
+        String prefix = s3Config.getProductKeyPrefix();
+        if (prefix == null || prefix.isBlank()) {
+            // 버킷 전체를 검사하게 되므로 상품 이미지가 아닌 오브젝트까지 지울 수 있다.
+            log.warn("상품 이미지 경로(product.image.key-prefix)가 없어서 고아 이미지 정리를 건너뜁니다.");
+            return;
+        }
+        try {
+            AtomicLong orphans = new AtomicLong();
+            s3Config.forEachObjectKeys(prefix, Instant.now().minus(orphanMinAge), keys -> {
+                List<String> orphanKeys = findOrphans(keys);
+                if (orphanKeys.isEmpty()) {
+                    return;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                imageDeletionRepository.saveAll(orphanKeys.stream()
+                        .map(key -> ImageDeletion.builder().objectKey(key).nextAttemptAt(now).build())
+                        .toList());
+                orphans.addAndGet(orphanKeys.size());
+            });
+            if (orphans.get() > 0) {
+                log.info("고아 이미지 {}건을 삭제 대기열에 추가했습니다.", orphans.get());
+            }
+        } catch (Exception e) {
+            log.error("고아 이미지 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private List<String> findOrphans(List<String> keys) {
+        Map<String, String> urlToKey = keys.stream()
+                .collect(Collectors.toMap(s3Config::toUrl, Function.identity(), (a, b) -> a));
+
+        Set<String> used = new HashSet<>(productRepository.findImagePathsIn(urlToKey.keySet()));
+        used.addAll(productRepository.findThumbnailPathsIn(urlToKey.keySet()));
+
+        return urlToKey.entrySet().stream()
+                .filter(entry -> !used.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+    // 10초, 20초, 40초 ... 최대 max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(10L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void updateQueueMetrics(LocalDateTime now) {
+        queueDepth.set(imageDeletionRepository.count());
+        oldestAgeSeconds.set(imageDeletionRepository.findOldestCreateTime()
+                .map(createTime -> Duration.between(createTime, now).toSeconds())
+                .orElse(0L));
+    }
+
+    // 삭제 결과별 처리량 (deleted, failed)
+    private Counter processedCounter(String result) {
+        return Counter.builder("product.image.deletion.processed")
+                .description("S3에서 삭제를 시도한 이미지 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.playdata.productservice.product.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ 상품 정보(이름 등)가 바뀌었음을 다른 서비스에게 알려주는 객체
+
+ ordering-service는 주문 내역을 보여줄 때 사용하는 상품 요약 정보를
+ 메모리 + Redis(product:summary:{id})에 캐싱하고 있다.
+ 상품이 변경/삭제되면 Redis 캐시를 지우고 product:changed 채널로 상품 id를 발행해서
+ 각 서버의 메모리 캐시도 지우게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventPublisher {
+
+    public static final String SUMMARY_KEY_PREFIX = "product:summary:";
+    public static final String CHANGED_CHANNEL = "product:changed";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // 트랜잭션이 커밋된 후에 알린다. (롤백되면 알리지 않음)
+    public void publishChanged(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(productId);
+                }
+            });
+        } else {
+            publish(productId);
+        }
+    }
+
+    private void publish(Long productId) {
+        try {
+            redisTemplate.delete(SUMMARY_KEY_PREFIX + productId);
+            redisTemplate.convertAndSend(CHANGED_CHANNEL, String.valueOf(productId));
+        } catch (Exception e) {
+            // 알림이 실패해도 상품 변경은 이미 완료됨 -> 캐시는 TTL이 지나면 갱신된다.
+            log.warn("상품 변경 이벤트 발행 실패. productId: {}, 오류: {}", productId, e.getMessage());
+        }
+    }
+}
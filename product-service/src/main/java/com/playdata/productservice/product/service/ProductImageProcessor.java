@@ -0,0 +1,161 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.common.configs.AwsS3Config;
+import com.playdata.productservice.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+ 상품 이미지 후처리 객체 (목록 화면용 썸네일 생성)
+
+ 상품 등록 요청은 원본 이미지를 S3에 올리고 바로 응답한다.
+ 썸네일은 트랜잭션이 커밋된 후 이미지 전용 스레드 풀(AsyncConfig)에서
+ 1. S3에서 원본을 스트림으로 읽어서
+ 2. 긴 변을 thumbnail-size에 맞게 줄인 JPEG로 변환한 뒤
+ 3. products/thumbnails/{원본 파일명}.jpg 로 업로드하고 상품의 thumbnailPath를 변경한다.
+
+ 큰 이미지는 디코딩할 때부터 픽셀을 건너뛰며 읽어서(subsampling) 원본 크기의 비트맵을 메모리에 만들지 않는다.
+ JDK(ImageIO)에는 WebP 인코더가 없어서 썸네일은 JPEG로 만든다.
+ */
+@Component
+@Slf4j
+public class ProductImageProcessor {
+
+    private static final String THUMBNAIL_PREFIX = "thumbnails";
+
+    private final AwsS3Config s3Config;
+    private final ProductRepository productRepository;
+    private final ProductListCache productListCache;
+    private final ImageDeletionQueue imageDeletionQueue;
+    private final ProductEventPublisher productEventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final int thumbnailSize;
+
+    public ProductImageProcessor(AwsS3Config s3Config,
+                                 ProductRepository productRepository,
+                                 ProductListCache productListCache,
+                                 ImageDeletionQueue imageDeletionQueue,
+                                 ProductEventPublisher productEventPublisher,
+                                 @Qualifier("imageProcessingExecutor") ThreadPoolTaskExecutor executor,
+                                 @Value("${product.image.thumbnail-size:300}") int thumbnailSize) {
+        this.s3Config = s3Config;
+        this.productRepository = productRepository;
+        this.productListCache = productListCache;
+        this.imageDeletionQueue = imageDeletionQueue;
+        this.productEventPublisher = productEventPublisher;
+        this.executor = executor;
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    // 상품 저장이 커밋된 후에 썸네일 생성을 예약 (롤백되면 만들지 않음)
+    public void createThumbnailAfterCommit(Long productId, String imageUrl) {
+        Runnable task = () -> executor.execute(() -> createThumbnail(productId, imageUrl));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void createThumbnail(Long productId, String imageUrl) {
+        try {
+            BufferedImage thumbnail;
+            try (InputStream original = s3Config.downloadFromS3Bucket(imageUrl)) {
+                thumbnail = readScaled(original);
+            }
+            if (thumbnail == null) {
+                log.info("썸네일을 만들 수 없는 이미지 형식입니다. productId: {}", productId);
+                return;
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(thumbnail, "jpg", out);
+
+            String thumbnailUrl = s3Config.uploadToS3Bucket(
+                    new ByteArrayInputStream(out.toByteArray()), out.size(), "image/jpeg",
+                    s3Config.derivedKey(imageUrl, THUMBNAIL_PREFIX, "jpg"));
+
+            if (productRepository.updateThumbnailPath(productId, thumbnailUrl) == 0) {
+                // 썸네일을 만드는 사이에 상품이 삭제됨
+                imageDeletionQueue.enqueue(thumbnailUrl);
+                return;
+            }
+            productListCache.evictProductsAfterCommit(List.of(productId));
+            productEventPublisher.publishChanged(productId);
+            log.info("썸네일 생성 완료. productId: {}, url: {}", productId, thumbnailUrl);
+        } catch (Exception e) {
+            // 썸네일이 없어도 원본 이미지로 표시되므로 로그만 남긴다.
+            log.error("썸네일 생성 실패. productId: {}, 오류: {}", productId, e.getMessage());
+        }
+    }
+
+    // 긴 변이 thumbnailSize가 되도록 축소해서 읽기 (지원하지 않는 형식이면 null)
+    private BufferedImage readScaled(InputStream original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int longSide = Math.max(width, height);
+
+                // 목표 크기의 2배 정도까지만 픽셀을 읽고, 나머지는 아래에서 부드럽게 축소
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longSide / (thumbnailSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) thumbnailSize / Math.max(decoded.getWidth(), decoded.getHeight()));
+                int targetWidth = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+                int targetHeight = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+
+                // JPEG는 투명도를 지원하지 않으므로 RGB로 그린다.
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = scaled.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(decoded, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+                } finally {
+                    graphics.dispose();
+                }
+                return scaled;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
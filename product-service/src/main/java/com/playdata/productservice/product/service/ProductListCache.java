@@ -0,0 +1,328 @@
+package com.playdata.productservice.product.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.productservice.product.dto.ProductResDTO;
+import com.playdata.productservice.product.dto.ProductSearchDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/*
+ 상품 목록(/product/list) 응답 캐시
+
+ 로그인 없이 호출되는 가장 요청이 많은 API라서, 검색어 없는 목록과 카테고리 검색 결과의 앞쪽 페이지를
+ 메모리(Caffeine) -> Redis -> DB 순서로 조회한다. (상품명 검색은 검색어 종류가 너무 많아서 캐싱하지 않음)
+
+ 캐시 키: product:list:v{버전}:{검색 종류}|{검색어}|{페이지}|{크기}|{정렬}
+
+ 무효화
+ - 상품 등록/삭제: 목록 구성 자체가 바뀌므로 버전을 올려서 전체 캐시를 버린다.
+ - 재고 변경: 해당 상품이 들어있는 캐시 항목만 지운다. (product:list:by-product:{id}에 항목 키를 기록해 둠)
+ - 핫 상품의 재고는 캐시에서 꺼낸 후 Redis 카운터 값으로 덮어쓰기 때문에 무효화할 필요가 없다.
+ - 다른 서버의 메모리 캐시는 product:list:invalidate 채널로 알린다. ("all" 또는 상품 id)
+
+ DB에서 목록을 읽는 사이에 재고 변경이 커밋되고 무효화까지 끝나면, 읽어 둔 (변경 전) 목록을 그대로 저장하는 문제가 생긴다.
+ - 무효화할 때 product:list:seq를 1 올리고, 그 값을 product:list:evicted:{id}에 기록한다.
+ - DB를 읽기 전의 seq보다 큰 값이 기록된 상품이 목록에 있다면 저장하지 않는다. (확인 + 저장은 Lua 스크립트로 한번에)
+ - 메모리 캐시도 같은 방식으로 서버 안의 순번(localSeq)을 비교해서 저장 여부를 정한다.
+ */
+@Component
+@Slf4j
+public class ProductListCache {
+
+    private static final String KEY_PREFIX = "product:list:v";
+    private static final String VERSION_KEY = "product:list:version";
+    private static final String BY_PRODUCT_PREFIX = "product:list:by-product:";
+    private static final String INVALIDATE_CHANNEL = "product:list:invalidate";
+    private static final String INVALIDATE_ALL = "all";
+    private static final String SEQ_KEY = "product:list:seq";
+    private static final String EVICTED_PREFIX = "product:list:evicted:";
+
+    // 목록을 읽는 사이에 무효화된 상품이 없을 때만 목록과 역인덱스를 저장하는 스크립트
+    // KEYS: 목록 키, evicted 키 n개, 역인덱스 키 n개
+    // ARGV[1]: 목록 json, ARGV[2]: ttl(초), ARGV[3]: DB를 읽기 전의 seq
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            local n = (#KEYS - 1) / 2
+            for i = 2, n + 1 do
+                local evicted = redis.call('GET', KEYS[i])
+                if evicted and tonumber(evicted) > tonumber(ARGV[3]) then
+                    return 0
+                end
+            end
+            redis.call('SETEX', KEYS[1], ARGV[2], ARGV[1])
+            for i = n + 2, #KEYS do
+                redis.call('SADD', KEYS[i], KEYS[1])
+                redis.call('EXPIRE', KEYS[i], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, List<ProductResDTO>> localCache;
+    private final Duration redisTtl;
+    private final int maxCachedPage;
+
+    private final AtomicLong version = new AtomicLong();
+
+    // 메모리 캐시 무효화 순번 (상품 id -> 무효화된 시점의 순번, 전체 무효화 시점의 순번)
+    private final AtomicLong localSeq = new AtomicLong();
+    private final Cache<Long, Long> localEvictions;
+    private volatile long localEvictedAllAt;
+
+    private final Counter redisHit;
+    private final Counter redisMiss;
+
+    public ProductListCache(StringRedisTemplate redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${product.list-cache.local.max-size:1000}") long localMaxSize,
+                            @Value("${product.list-cache.local.ttl:30s}") Duration localTtl,
+                            @Value("${product.list-cache.redis.ttl:5m}") Duration redisTtl,
+                            @Value("${product.list-cache.max-page:5}") int maxCachedPage) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.redisTtl = redisTtl;
+        this.maxCachedPage = maxCachedPage;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl) // 무효화 알림이 유실되더라도 오래된 목록이 계속 남지 않도록
+                .recordStats()
+                .build();
+        // 메모리 캐시 항목보다 오래 기억할 필요는 없다.
+        this.localEvictions = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .build();
+
+        this.redisHit = Counter.builder("product.list.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMiss = Counter.builder("product.list.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void init() {
+        // 메모리 캐시 적중률: /actuator/metrics/cache.gets?tag=cache:productList
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "productList");
+        refreshVersion();
+
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (INVALIDATE_ALL.equals(body)) {
+                evictAllLocal();
+                refreshVersion();
+                return;
+            }
+            try {
+                evictLocal(Long.valueOf(body));
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 상품 목록 캐시 무효화 메시지: {}", body);
+            }
+        }, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    // 검색어 없는 목록과 카테고리 검색의 앞쪽 페이지만 캐싱
+    public boolean isCacheable(ProductSearchDto dto, Pageable pageable) {
+        if (pageable.getPageNumber() >= maxCachedPage) {
+            return false;
+        }
+        return dto.getCategory() == null || !dto.getCategory().equals("name");
+    }
+
+    /**
+     * 캐시된 상품 목록을 조회, 없으면 loader로 DB에서 조회한 후 캐시에 저장
+     * 리턴되는 목록은 호출한 쪽에서 마음대로 수정해도 되는 복사본이다.
+     */
+    public List<ProductResDTO> get(ProductSearchDto dto, Pageable pageable, Supplier<List<ProductResDTO>> loader) {
+        String key = cacheKey(dto, pageable);
+        List<ProductResDTO> cached = localCache.getIfPresent(key);
+        if (cached == null) {
+            long seqBefore = localSeq.get();
+            cached = loadFromRedis(key, loader);
+            // 읽는 사이에 무효화된 상품이 들어있다면 이번 응답에만 사용하고 메모리 캐시에는 넣지 않는다.
+            if (!evictedLocallySince(seqBefore, cached)) {
+                localCache.put(key, cached);
+            }
+        }
+        return cached.stream().map(product -> product.toBuilder().build()).toList();
+    }
+
+    // 상품 등록/삭제 -> 커밋 후 전체 목록 캐시 무효화
+    public void evictAllAfterCommit() {
+        afterCommit(() -> {
+            evictAllLocal();
+            try {
+                version.set(redisTemplate.opsForValue().increment(VERSION_KEY));
+                redisTemplate.convertAndSend(INVALIDATE_CHANNEL, INVALIDATE_ALL);
+            } catch (Exception e) {
+                log.warn("상품 목록 캐시 전체 무효화 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    // 재고 변경 -> 커밋 후 해당 상품이 들어있는 목록 캐시만 무효화
+    public void evictProductsAfterCommit(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> productIds.forEach(productId -> {
+            evictLocal(productId);
+            try {
+                // 지우기 전에 무효화 순번부터 기록 -> 지금 DB를 읽고 있는 요청이 변경 전 목록을 저장하지 못한다.
+                Long seq = redisTemplate.opsForValue().increment(SEQ_KEY);
+                redisTemplate.opsForValue().set(EVICTED_PREFIX + productId, String.valueOf(seq), redisTtl);
+
+                String indexKey = BY_PRODUCT_PREFIX + productId;
+                Set<String> keys = redisTemplate.opsForSet().members(indexKey);
+                if (keys != null && !keys.isEmpty()) {
+                    redisTemplate.delete(keys);
+                }
+                redisTemplate.delete(indexKey);
+                redisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(productId));
+            } catch (Exception e) {
+                log.warn("상품 목록 캐시 무효화 실패. productId: {}, 오류: {}", productId, e.getMessage());
+            }
+        }));
+    }
+
+    private List<ProductResDTO> loadFromRedis(String key, Supplier<List<ProductResDTO>> loader) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            if (json != null) {
+                redisHit.increment();
+                return objectMapper.readValue(json, new TypeReference<>() {});
+            }
+        } catch (Exception e) {
+            log.warn("Redis에서 상품 목록 조회 실패: {}", e.getMessage());
+        }
+        redisMiss.increment();
+
+        Long seqBefore = currentSeq();
+        List<ProductResDTO> products = loader.get();
+        if (seqBefore != null) {
+            writeToRedis(key, products, seqBefore);
+        }
+        return products;
+    }
+
+    // DB를 읽기 전의 무효화 순번 (조회에 실패하면 null -> 이번 목록은 Redis에 저장하지 않음)
+    private Long currentSeq() {
+        try {
+            String seq = redisTemplate.opsForValue().get(SEQ_KEY);
+            return seq != null ? Long.parseLong(seq) : 0L;
+        } catch (Exception e) {
+            log.warn("상품 목록 캐시 순번 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(String key, List<ProductResDTO> products, long seqBefore) {
+        try {
+            String json = objectMapper.writeValueAsString(products);
+            // 목록 저장 + 상품별 역인덱스 기록을 한번의 왕복으로
+            List<String> keys = new ArrayList<>();
+            keys.add(key);
+            products.forEach(product -> keys.add(EVICTED_PREFIX + product.getId()));
+            products.forEach(product -> keys.add(BY_PRODUCT_PREFIX + product.getId()));
+
+            Long written = redisTemplate.execute(WRITE_SCRIPT, keys,
+                    json, String.valueOf(redisTtl.toSeconds()), String.valueOf(seqBefore));
+            if (written != null && written == 0) {
+                log.debug("조회하는 사이에 재고가 변경되어 상품 목록을 캐시하지 않습니다. key: {}", key);
+            }
+        } catch (Exception e) {
+            log.warn("Redis에 상품 목록 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private boolean evictedLocallySince(long seqBefore, List<ProductResDTO> products) {
+        if (localEvictedAllAt > seqBefore) {
+            return true;
+        }
+        return products.stream().anyMatch(product -> {
+            Long evictedAt = localEvictions.getIfPresent(product.getId());
+            return evictedAt != null && evictedAt > seqBefore;
+        });
+    }
+
+    private void evictAllLocal() {
+        localEvictedAllAt = localSeq.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    private void evictLocal(Long productId) {
+        localEvictions.put(productId, localSeq.incrementAndGet());
+        Set<String> keys = localCache.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().stream().anyMatch(product -> productId.equals(product.getId())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        localCache.invalidateAll(keys);
+    }
+
+    private void refreshVersion() {
+        try {
+            String current = redisTemplate.opsForValue().get(VERSION_KEY);
+            version.set(current != null ? Long.parseLong(current) : 0L);
+        } catch (Exception e) {
+            log.warn("상품 목록 캐시 버전 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    private String cacheKey(ProductSearchDto dto, Pageable pageable) {
+        return KEY_PREFIX + version.get() + ":"
+                + nullToEmpty(dto.getCategory()) + "|" + nullToEmpty(dto.getSearchName()) + "|"
+                + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.playdata.productservice.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.productservice.product.dto.ProductLookupResDTO;
+import com.playdata.productservice.product.dto.ProductResDTO;
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ 서비스 간 상품 일괄 조회 (/product/lookup)
+
+ - 요청한 id 목록의 중복을 제거하고, 최근에 조회된 상품은 메모리 캐시(Caffeine)에서 꺼낸다.
+ - 캐시에 없는 상품만 chunk-size개씩 나눠서 IN 쿼리로 조회 (IN 목록이 너무 길어지지 않도록)
+ - 필요한 필드만 값 배열로 응답한다. (ProductLookupResDTO)
+
+ 재고는 자주 바뀌기 때문에 캐시하지 않고, 요청에 stockQuantity가 있을 때만 DB(핫 상품은 Redis)에서 새로 읽는다.
+ 상품이 변경/삭제되면 ProductEventPublisher가 발행하는 product:changed 채널을 받아 캐시에서 지운다.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class ProductLookupService {
+
+    public static final String STOCK_FIELD = "stockQuantity";
+
+    // 조회할 수 있는 필드 (id는 항상 첫 번째 값으로 포함)
+    private static final Map<String, Function<ProductResDTO, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("name", ProductResDTO::getName);
+        FIELDS.put("category", ProductResDTO::getCategory);
+        FIELDS.put("price", ProductResDTO::getPrice);
+        FIELDS.put(STOCK_FIELD, ProductResDTO::getStockQuantity);
+        FIELDS.put("imagePath", ProductResDTO::getImagePath);
+        FIELDS.put("thumbnailPath", ProductResDTO::getThumbnailPath);
+    }
+
+    private final ProductRepository productRepository;
+    private final HotStockService hotStockService;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<Long, ProductResDTO> localCache;
+    private final int chunkSize;
+    private final int maxIds;
+
+    public ProductLookupService(ProductRepository productRepository,
+                                HotStockService hotStockService,
+                                RedisMessageListenerContainer listenerContainer,
+                                MeterRegistry meterRegistry,
+                                @Value("${product.lookup.cache.max-size:10000}") long cacheMaxSize,
+                                @Value("${product.lookup.cache.ttl:10m}") Duration cacheTtl,
+                                @Value("${product.lookup.chunk-size:500}") int chunkSize,
+                                @Value("${product.lookup.max-ids:10000}") int maxIds) {
+        this.productRepository = productRepository;
+        this.hotStockService = hotStockService;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.maxIds = maxIds;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl) // 이벤트가 유실되더라도 일정 시간이 지나면 갱신되도록
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    private void init() {
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "productLookup");
+
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String productId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                localCache.invalidate(Long.valueOf(productId));
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 상품 변경 이벤트: {}", productId);
+            }
+        }, new ChannelTopic(ProductEventPublisher.CHANGED_CHANNEL));
+    }
+
+    /**
+     * 상품 일괄 조회
+     *
+     * @param productIds - 조회할 상품 id (중복 가능, 최대 max-ids개)
+     * @param fields     - 응답에 포함할 필드 이름 (쉼표로 구분, 없으면 name)
+     */
+    public ProductLookupResDTO lookup(Collection<Long> productIds, String fields) {
+        List<String> fieldNames = parseFields(fields);
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 상품은 " + maxIds + "개 이하입니다.");
+        }
+
+        Map<Long, ProductResDTO> found = new HashMap<>(localCache.getAllPresent(ids));
+        List<Long> misses = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        for (List<Long> chunk : chunks(misses)) {
+            for (Product product : productRepository.findByIdIn(chunk)) {
+                ProductResDTO dto = product.toDTO();
+                localCache.put(dto.getId(), dto);
+                found.put(dto.getId(), dto);
+            }
+        }
+
+        Map<Long, Integer> stocks = fieldNames.contains(STOCK_FIELD) ? readStocks(found.keySet()) : Map.of();
+
+        List<String> responseFields = new ArrayList<>();
+        responseFields.add("id");
+        responseFields.addAll(fieldNames);
+
+        List<List<Object>> rows = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            ProductResDTO dto = found.get(id);
+            if (dto == null) {
+                continue;
+            }
+            List<Object> row = new ArrayList<>(responseFields.size());
+            row.add(id);
+            for (String field : fieldNames) {
+                row.add(field.equals(STOCK_FIELD) ? stocks.get(id) : FIELDS.get(field).apply(dto));
+            }
+            rows.add(row);
+        }
+
+        return ProductLookupResDTO.builder()
+                .fields(responseFields)
+                .rows(rows)
+                .build();
+    }
+
+    // 재고는 캐시된 값을 쓰지 않는다. (DB 값 위에 핫 상품의 Redis 카운터 값을 덮어씀)
+    private Map<Long, Integer> readStocks(Collection<Long> ids) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(ids))) {
+            productRepository.findStockQuantitiesByIdIn(chunk)
+                    .forEach(row -> stocks.put((Long) row[0], (Integer) row[1]));
+        }
+        stocks.putAll(hotStockService.getStockLevels(ids));
+        return stocks;
+    }
+
+    private List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return List.of("name");
+        }
+        List<String> fieldNames = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty() && !field.equals("id"))
+                .distinct()
+                .toList();
+        for (String field : fieldNames) {
+            if (!FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("조회할 수 없는 필드입니다: " + field);
+            }
+        }
+        return fieldNames;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+}
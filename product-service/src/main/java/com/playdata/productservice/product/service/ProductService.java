@@ -4,20 +4,39 @@ import com.playdata.productservice.common.configs.AwsS3Config;
 import com.playdata.productservice.product.dto.ProductResDTO;
 import com.playdata.productservice.product.dto.ProductSaveReqDTO;
 import com.playdata.productservice.product.dto.ProductSearchDto;
+import com.playdata.productservice.product.dto.ProductSliceResDTO;
+import com.playdata.productservice.product.dto.ProductStockReqDTO;
+import com.playdata.productservice.product.dto.ProductStockResDTO;
+import com.playdata.productservice.product.dto.StockEventDTO;
 import com.playdata.productservice.product.entity.Product;
 import com.playdata.productservice.product.repository.ProductRepository;
+import com.playdata.productservice.product.repository.ProductSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +45,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    // 상품 목록 한 페이지의 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+    // 핫 상품 지정/해제와 겹쳤을 때 재고 차감을 다시 시도하는 최대 횟수
+    private static final int MAX_STOCK_ROUTE_ATTEMPTS = 3;
+
     private final ProductRepository productRepository;
     private final AwsS3Config s3Config;
+    private final HotStockService hotStockService;
+    private final StockReservationRegistry reservationRegistry;
+    private final ProductEventPublisher productEventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductListCache productListCache;
+    private final ProductImageProcessor imageProcessor;
+    private final ImageDeletionQueue imageDeletionQueue;
+    private final StockEventPublisher stockEventPublisher;
+
+    @Value("${product.list-cache.warm-up-pages:3}")
+    private int warmUpPages;
 
     public Product productCreate(ProductSaveReqDTO dto) throws IOException {
 
@@ -51,19 +86,54 @@ public class ProductService {
          */
 
         // 더 이상 로컬 경로에 이미지를 저장하지 않고, s3 버킷에 저장
-        String imageUrl = s3Config.uploadToS3Bucket(productImage.getBytes(), uniqueFileName);
+        // getBytes()로 이미지 전체를 메모리에 복사하지 않고 스트림으로 전송
+        String imageUrl;
+        try (InputStream imageStream = productImage.getInputStream()) {
+            imageUrl = s3Config.uploadToS3Bucket(
+                    imageStream, productImage.getSize(), productImage.getContentType(),
+                    s3Config.productKey(uniqueFileName));
+        }
 
         Product product = dto.toEntity();
         product.setImagePath(imageUrl); // 파일명이 아닌 S3 오브젝트의 url이 저장될 것이다.
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productListCache.evictAllAfterCommit(); // 새 상품이 목록에 나타나도록
+        // 썸네일은 응답 후 백그라운드에서 생성 (완성되기 전까지는 원본 이미지로 표시)
+        imageProcessor.createThumbnailAfterCommit(saved.getId(), imageUrl);
+        return saved;
     }
 
     public List<ProductResDTO> getProductList(ProductSearchDto dto, Pageable pageable) {
-        Page<Product> products;
+        List<ProductResDTO> dtoList = productListCache.isCacheable(dto, pageable)
+                ? productListCache.get(dto, pageable, () -> loadProductList(dto, pageable))
+                : loadProductList(dto, pageable);
+
+        // 핫 상품의 재고는 캐시에 저장된 값이 아닌 Redis 카운터의 현재 값으로
+        hotStockService.applyStockLevels(dtoList);
+        return dtoList;
+    }
+
+    // 서버가 뜨면 검색어 없는 목록의 앞쪽 페이지를 미리 캐시에 올려둔다. (기본 페이지 크기 20 기준)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpProductList() {
+        try {
+            for (int page = 0; page < warmUpPages; page++) {
+                getProductList(new ProductSearchDto(), PageRequest.of(page, 20));
+            }
+        } catch (Exception e) {
+            log.warn("상품 목록 캐시 준비 실패: {}", e.getMessage());
+        }
+    }
+
+    private List<ProductResDTO> loadProductList(ProductSearchDto dto, Pageable pageable) {
+        // 화면에는 전체 개수가 필요 없으므로 COUNT 쿼리를 실행하지 않는 Slice로 조회
+        Slice<Product> products;
         if (dto.getCategory() == null) {
-            products = productRepository.findAll(pageable);
+            products = productRepository.findAllBy(pageable);
 
+        } else if (searchIndex.isAvailable()) {
+            products = search(dto, pageable);
         } else if (dto.getCategory().equals("name")) {
             products = productRepository.findByNameValue(dto.getSearchName(), pageable);
         } else {
@@ -72,7 +142,65 @@ public class ProductService {
 
         List<Product> productList = products.getContent();
 
-        return productList.stream().map(Product::toDTO).toList();
+        return productList.stream().map(Product::toDTO).collect(Collectors.toList());
+    }
+
+    // FULLTEXT 인덱스 검색 (검색 결과는 관련도 순으로 정렬되므로 요청의 정렬 조건은 사용하지 않음)
+    private Slice<Product> search(ProductSearchDto dto, Pageable pageable) {
+        String query = searchIndex.toBooleanQuery(dto.getSearchName());
+        if (query == null) {
+            return productRepository.findAllBy(pageable);
+        }
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return dto.getCategory().equals("name")
+                ? productRepository.searchByName(query, unsorted)
+                : productRepository.searchByCategory(query, unsorted);
+    }
+
+    /**
+     * 상품 목록 (keyset 페이징)
+     * 페이지 번호(OFFSET) 대신 이전 페이지의 마지막 상품 id(cursor) 다음부터 조회하므로
+     * 뒤쪽 페이지로 갈수록 느려지는 문제가 없다. (상품 id 순서로 정렬)
+     *
+     * @param cursor - 이전 페이지의 nextCursor (첫 페이지는 null 또는 0)
+     * @param size - 한 페이지에 담을 상품 개수
+     */
+    public ProductSliceResDTO getProductListByCursor(ProductSearchDto dto, Long cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long lastId = cursor != null ? cursor : 0L;
+        int limit = pageSize + 1; // 다음 페이지가 있는지 알기 위해 하나 더 조회
+
+        List<Product> products;
+        if (dto.getCategory() == null) {
+            products = productRepository.findAfter(lastId, Limit.of(limit));
+        } else if (searchIndex.isAvailable()) {
+            String query = searchIndex.toBooleanQuery(dto.getSearchName());
+            if (query == null) {
+                products = productRepository.findAfter(lastId, Limit.of(limit));
+            } else if (dto.getCategory().equals("name")) {
+                products = productRepository.searchByNameAfter(query, lastId, limit);
+            } else {
+                products = productRepository.searchByCategoryAfter(query, lastId, limit);
+            }
+        } else if (dto.getCategory().equals("name")) {
+            products = productRepository.findByNameValueAfter(dto.getSearchName(), lastId, Limit.of(limit));
+        } else {
+            products = productRepository.findByCategoryValueAfter(dto.getSearchName(), lastId, Limit.of(limit));
+        }
+
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+
+        List<ProductResDTO> dtoList = products.stream().map(Product::toDTO).toList();
+        hotStockService.applyStockLevels(dtoList);
+
+        return ProductSliceResDTO.builder()
+                .products(dtoList)
+                .nextCursor(hasNext ? products.get(products.size() - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     public void productDelete(Long id) throws Exception {
@@ -80,11 +208,18 @@ public class ProductService {
                 () -> new EntityNotFoundException("Product with id: " + id + " not found")
         );
 
-        String imageUrl = product.getImagePath();
-
-        s3Config.deleteFromS3Bucket(imageUrl);
+        // S3 이미지는 트랜잭션 안에서 바로 지우지 않고 삭제 대기열에 기록만 한다. (ImageDeletionQueue)
+        imageDeletionQueue.enqueue(product.getImagePath(), product.getThumbnailPath());
 
+        // 해제(변경량 DB 반영)는 별도 트랜잭션으로 커밋되므로, 삭제가 롤백되더라도 재고 변경은 유실되지 않는다.
+        if (product.isHotStock() || hotStockService.isHot(id)) {
+            hotStockService.unregister(id);
+        }
         productRepository.deleteById(id);
+
+        // 다른 서비스가 캐싱하고 있는 상품 정보 삭제
+        productEventPublisher.publishChanged(id);
+        productListCache.evictAllAfterCommit();
     }
 
     public ProductResDTO getProductInfo(Long prodId) {
@@ -92,24 +227,332 @@ public class ProductService {
                 () -> new EntityNotFoundException("Product with id: " + prodId)
         );
 
-        return product.toDTO();
+        ProductResDTO dto = product.toDTO();
+        hotStockService.applyStockLevels(List.of(dto));
+        return dto;
     }
 
     public void updateStockQuantity(Long prodId, int stockQuantity) {
-        Product foundProduct = productRepository.findById(prodId).orElseThrow(
+        // 핫 상품은 Redis 카운터를 변경하고, DB에는 주기적으로 반영된다.
+        if (hotStockService.isHot(prodId) && setHotStock(prodId, stockQuantity)) {
+            return;
+        }
+
+        // 재고 변경 이벤트에 변경량을 담기 위해 row를 잠그고 이전 재고를 읽은 후 변경 (변경 감지로 UPDATE)
+        Product product = productRepository.findByIdInForUpdate(List.of(prodId)).stream().findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Product with id: " + prodId + " not found"));
+        if (product.isHotStock()) {
+            // 다른 서버에서 핫 상품으로 지정됨 (이 서버의 목록은 아직 갱신 전)
+            hotStockService.markHot(prodId);
+            if (!setHotStock(prodId, stockQuantity)) {
+                throw new IllegalStateException("재고 관리 방식이 변경되는 중입니다. 잠시 후 다시 시도해 주세요.");
+            }
+            return;
+        }
+        int delta = stockQuantity - product.getStockQuantity();
+        product.changeStockQuantity(stockQuantity);
+
+        productListCache.evictProductsAfterCommit(List.of(prodId));
+        stockEventPublisher.publishAfterCommit(
+                List.of(stockEvent(prodId, delta, stockQuantity, product.getStockVersion(), "SET")));
+    }
+
+    /**
+     * 재고를 지정한 수량만큼 차감 (현재 재고를 읽어서 계산한 값을 덮어쓰지 않음)
+     * 재고 확인과 차감을 하나의 조건부 UPDATE로 처리하기 때문에
+     * 같은 상품에 주문이 동시에 몰려도 재고가 음수가 되거나 차감이 유실되지 않는다.
+     *
+     * @param prodId   - 상품 id
+     * @param quantity - 차감할 수량
+     * @return - 차감 결과와 차감 후 남은 재고
+     */
+    public ProductStockResDTO decreaseStockQuantity(Long prodId, int quantity) {
+        validateQuantity(quantity);
+
+        if (hotStockService.isHot(prodId)) {
+            ProductStockResDTO result = decreaseHotStock(prodId, quantity);
+            if (result != null) {
+                return result;
+            }
+            // 다른 서버에서 핫 상품 지정이 해제됨 -> DB 재고에서 차감
+        }
+
+        boolean success = productRepository.decreaseStock(prodId, quantity) == 1;
+        if (!success && productRepository.findHotStockById(prodId).orElse(false)) {
+            // 다른 서버에서 핫 상품으로 지정됨 (이 서버의 목록은 아직 갱신 전) -> Redis 카운터에서 차감
+            hotStockService.markHot(prodId);
+            ProductStockResDTO result = decreaseHotStock(prodId, quantity);
+            if (result == null) {
+                throw new IllegalStateException("재고 관리 방식이 변경되는 중입니다. 잠시 후 다시 시도해 주세요.");
+            }
+            return result;
+        }
+        if (success) {
+            productListCache.evictProductsAfterCommit(List.of(prodId));
+        }
+
+        // 같은 트랜잭션에서 방금 변경한 row를 읽기 때문에 차감 직후의 재고와 버전이 조회된다.
+        Product product = productRepository.findById(prodId).orElseThrow(
                 () -> new EntityNotFoundException("Product with id: " + prodId + " not found")
         );
+        int stockQuantity = product.getStockQuantity();
+        if (success) {
+            stockEventPublisher.publishAfterCommit(List.of(
+                    stockEvent(prodId, -quantity, stockQuantity, product.getStockVersion(), "DECREASE")));
+        }
 
-        foundProduct.setStockQuantity(stockQuantity);
-        productRepository.save(foundProduct);
+        return ProductStockResDTO.builder()
+                .productId(prodId)
+                .quantity(quantity)
+                .stockQuantity(stockQuantity)
+                .success(success)
+                .build();
     }
 
     public List<ProductResDTO> getProductsName(List<Long> productIds) {
 
         List<Product> products = productRepository.findByIdIn(productIds);
-        return products.stream()
+        List<ProductResDTO> dtoList = products.stream()
                 .map(Product::toDTO)
                 .collect(Collectors.toList());
+        hotStockService.applyStockLevels(dtoList);
+        return dtoList;
+
+    }
+
+    /**
+     * reservationKey가 있는 재고 차감 요청 (재처리로 같은 요청이 여러 번 들어와도 한번만 차감)
+     * 이미 처리된 키라면 재고를 건드리지 않고 이전 결과를 리턴한다.
+     *
+     * @param reservationKey - 요청을 구분하는 키 (ordering-service에서는 주문 id로 만든다)
+     * @param reqList - 차감할 상품 id와 수량 목록
+     */
+    public List<ProductStockResDTO> reserveStock(String reservationKey, List<ProductStockReqDTO> reqList) {
+        if (reservationKey == null || reservationKey.isBlank()) {
+            return reserveStock(reqList);
+        }
+
+        Optional<List<ProductStockResDTO>> previous = reservationRegistry.claim(reservationKey);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
 
+        List<ProductStockResDTO> results;
+        try {
+            results = reserveStock(reqList);
+        } catch (RuntimeException e) {
+            reservationRegistry.release(reservationKey);
+            throw e;
+        }
+
+        if (!results.stream().allMatch(ProductStockResDTO::isSuccess)) {
+            // 재고 부족 -> 아무것도 차감하지 않았으므로 나중에 다시 요청할 수 있게 한다.
+            reservationRegistry.release(reservationKey);
+            return results;
+        }
+
+        // 커밋되면 결과를 남기고, 롤백되면 처리 표시를 지운다.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reservationRegistry.complete(reservationKey, results);
+                } else {
+                    reservationRegistry.release(reservationKey);
+                }
+            }
+        });
+        return results;
+    }
+
+    /**
+     * 주문 한 건에 포함된 모든 상품의 재고를 한번에 확인하고 차감
+     * 하나라도 재고가 부족하면 아무것도 차감하지 않는다. (주문 단위 all-or-nothing)
+     *
+     * @param reqList - 차감할 상품 id와 수량 목록
+     * @return - 상품별 처리 결과 (같은 상품이 여러 줄이면 하나로 합쳐서 리턴)
+     */
+    public List<ProductStockResDTO> reserveStock(List<ProductStockReqDTO> reqList) {
+        reqList.forEach(req -> validateQuantity(req.getQuantity()));
+
+        // 같은 상품이 여러 줄로 들어올 수 있으니 상품별로 수량을 합산
+        Map<Long, Integer> requested = reqList.stream()
+                .collect(Collectors.groupingBy(
+                        ProductStockReqDTO::getProductId,
+                        LinkedHashMap::new,
+                        Collectors.summingInt(ProductStockReqDTO::getQuantity)
+                ));
+
+        // 이 서버의 핫 상품 목록이 DB/Redis와 달라서 나눈 결과가 틀렸다면, 목록이 고쳐진 상태로 다시 나눠서 처리
+        for (int attempt = 0; attempt < MAX_STOCK_ROUTE_ATTEMPTS; attempt++) {
+            List<ProductStockResDTO> results = tryReserveStock(requested);
+            if (results != null) {
+                return results;
+            }
+        }
+        throw new IllegalStateException("재고 관리 방식이 변경되는 중입니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    // 리턴: 상품별 처리 결과, 핫 상품 여부가 이 서버의 목록과 달라서 처리하지 못했다면 null (아무것도 차감하지 않음)
+    private List<ProductStockResDTO> tryReserveStock(Map<Long, Integer> requested) {
+        // 핫 상품은 Redis 카운터에서, 나머지 상품은 DB에서 차감한다.
+        Map<Long, Integer> hotRequested = new LinkedHashMap<>();
+        Map<Long, Integer> dbRequested = new LinkedHashMap<>();
+        requested.forEach((productId, quantity) ->
+                (hotStockService.isHot(productId) ? hotRequested : dbRequested).put(productId, quantity));
+
+        // 상품 개수만큼 findById를 반복하지 않고, 한번의 조회로 모든 row를 잠그고 가져온다.
+        Map<Long, Product> productMap = dbRequested.isEmpty() ? Map.of()
+                : productRepository.findByIdInForUpdate(dbRequested.keySet())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // 잠근 row가 핫 상품으로 표시되어 있다 -> 다른 서버에서 방금 지정됨, Redis 카운터로 처리해야 한다.
+        List<Long> markedHot = productMap.values().stream()
+                .filter(Product::isHotStock)
+                .map(Product::getId)
+                .toList();
+        if (!markedHot.isEmpty()) {
+            markedHot.forEach(hotStockService::markHot);
+            return null;
+        }
+
+        boolean dbAvailable = dbRequested.entrySet().stream().allMatch(entry -> {
+            Product product = productMap.get(entry.getKey());
+            return product != null && product.getStockQuantity() >= entry.getValue();
+        });
+
+        // DB 상품의 재고가 충분할 때만 핫 상품 재고 차감을 시도
+        Map<Long, ProductStockResDTO> hotResults = new HashMap<>();
+        Map<Long, Long> versions = new HashMap<>(); // 차감 후 상품별 재고 버전 (재고 변경 이벤트용)
+        if (dbAvailable && !hotRequested.isEmpty()) {
+            HotStockService.ReserveResult reserved = hotStockService.reserve(hotRequested);
+            if (!reserved.getNotHot().isEmpty()) {
+                // 핫 상품에서 해제된 상품 -> 목록에서 빠졌으므로 다시 나누면 DB에서 차감된다.
+                return null;
+            }
+            reserved.getResults().forEach(result -> hotResults.put(result.getProductId(), result));
+            versions.putAll(reserved.getVersions());
+        } else if (!hotRequested.isEmpty()) {
+            Map<Long, Integer> levels = hotStockService.getStockLevels(hotRequested.keySet());
+            hotRequested.forEach((productId, quantity) -> {
+                int level = levels.getOrDefault(productId, 0);
+                hotResults.put(productId, ProductStockResDTO.builder()
+                        .productId(productId)
+                        .quantity(quantity)
+                        .stockQuantity(level)
+                        .success(level >= quantity)
+                        .build());
+            });
+        }
+
+        boolean hotReserved = hotResults.values().stream().allMatch(ProductStockResDTO::isSuccess);
+        boolean allAvailable = dbAvailable && hotReserved;
+        if (allAvailable && !hotRequested.isEmpty()) {
+            // DB 쪽 트랜잭션이 롤백되면 Redis에서 차감한 재고를 되돌려 준다.
+            releaseOnRollback(hotRequested);
+        }
+
+        List<ProductStockResDTO> results = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            if (hotResults.containsKey(entry.getKey())) {
+                results.add(hotResults.get(entry.getKey()));
+                continue;
+            }
+
+            Product product = productMap.get(entry.getKey());
+            int quantity = entry.getValue();
+            boolean success = product != null && product.getStockQuantity() >= quantity;
+
+            // 모든 상품의 재고가 충분할 때만 차감 (변경 감지로 트랜잭션 종료 시 UPDATE)
+            if (allAvailable) {
+                product.changeStockQuantity(product.getStockQuantity() - quantity);
+                versions.put(entry.getKey(), product.getStockVersion());
+            }
+
+            results.add(ProductStockResDTO.builder()
+                    .productId(entry.getKey())
+                    .quantity(quantity)
+                    .stockQuantity(product != null ? product.getStockQuantity() : 0)
+                    .success(success)
+                    .build());
+        }
+
+        if (allAvailable) {
+            // DB에서 차감한 상품이 들어있는 목록 캐시만 무효화 (핫 상품은 캐시 조회 시 Redis 값으로 덮어씀)
+            productListCache.evictProductsAfterCommit(dbRequested.keySet());
+            stockEventPublisher.publishAfterCommit(results.stream()
+                    .map(result -> stockEvent(result.getProductId(), -result.getQuantity(),
+                            result.getStockQuantity(), versions.get(result.getProductId()), "RESERVE"))
+                    .toList());
+        }
+
+        return results;
+    }
+
+    // 핫 상품으로 지정 (재고를 Redis 카운터로 관리)
+    public void registerHotStock(Long prodId) {
+        hotStockService.register(prodId);
+    }
+
+    // 핫 상품 지정 해제 (Redis에 쌓인 변경량을 DB에 반영하고 카운터 삭제)
+    public void unregisterHotStock(Long prodId) {
+        hotStockService.unregister(prodId);
+        productListCache.evictProductsAfterCommit(List.of(prodId)); // 이제부터는 DB 재고가 기준
+    }
+
+    // 핫 상품 재고 차감, 핫 상품에서 해제된 상품이라면 null
+    private ProductStockResDTO decreaseHotStock(Long prodId, int quantity) {
+        HotStockService.ReserveResult reserved = hotStockService.reserve(Map.of(prodId, quantity));
+        if (!reserved.getNotHot().isEmpty()) {
+            return null;
+        }
+        ProductStockResDTO result = reserved.getResults().get(0);
+        if (result.isSuccess()) {
+            // 트랜잭션이 롤백되면 Redis에서 차감한 재고를 되돌려 준다.
+            releaseOnRollback(Map.of(prodId, quantity));
+            stockEventPublisher.publishAfterCommit(List.of(stockEvent(prodId, -quantity,
+                    result.getStockQuantity(), reserved.getVersions().get(prodId), "DECREASE")));
+        }
+        return result;
+    }
+
+    // 핫 상품 재고를 특정 값으로 변경, 핫 상품에서 해제된 상품이라면 false
+    private boolean setHotStock(Long prodId, int stockQuantity) {
+        HotStockService.StockChange changed = hotStockService.setStock(prodId, stockQuantity);
+        if (changed == null) {
+            return false;
+        }
+        stockEventPublisher.publishAfterCommit(List.of(
+                stockEvent(prodId, changed.getDelta(), stockQuantity, changed.getVersion(), "SET")));
+        return true;
+    }
+
+    private void releaseOnRollback(Map<Long, Integer> reserved) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    hotStockService.release(reserved);
+                }
+            }
+        });
+    }
+
+    private StockEventDTO stockEvent(Long productId, int delta, int stockQuantity, long version, String reason) {
+        return StockEventDTO.builder()
+                .productId(productId)
+                .delta(delta)
+                .stockQuantity(stockQuantity)
+                .version(version)
+                .reason(reason)
+                .build();
+    }
+
+    // 0 이하의 수량으로 차감을 요청하면 재고가 늘어나 버리므로 막아준다.
+    private void validateQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("차감 수량은 1개 이상이어야 합니다.");
+        }
     }
 }
@@ -0,0 +1,89 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.dto.StockEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ 재고 변경 이벤트 발행 객체
+
+ 재고가 바뀔 때마다 Redis Stream(product:stock:events)에 이벤트를 추가한다.
+ 다른 서비스는 product-service에 재고를 묻지 않고 이 스트림을 소비자 그룹(XREADGROUP)으로 읽어서
+ 자신만의 재고 현황(read model)을 만들어 둘 수 있다.
+
+ 이벤트 필드: productId, delta(변경량), stockQuantity(변경 후 재고), version(상품별 재고 버전), reason, at(발행 시각, epoch ms)
+ - 트랜잭션이 커밋된 후에만 발행한다. (롤백된 차감은 발행되지 않음)
+ - 한 트랜잭션의 이벤트는 pipeline으로 한번에 추가된다.
+ - 커밋 후에 발행하기 때문에 같은 상품의 이벤트라도 스트림에 쌓인 순서가 실제 변경 순서와 다를 수 있다.
+   (먼저 커밋한 서버의 XADD가 늦게 도착하는 경우 등)
+   version은 재고가 바뀔 때마다 상품별로 1씩 올라가는 값이다.
+   DB 경로는 tbl_product.stock_version, 핫 상품은 Redis의 버전 키에서 재고 변경과 같은 쿼리/스크립트 안에서 올린다.
+   -> 소비자는 상품별로 마지막으로 적용한 version을 기억해 두고, 그보다 작거나 같은 이벤트는 버려야 한다.
+      delta를 누적하지 말고 가장 큰 version의 stockQuantity를 사용한다.
+   롤백된 변경, 발행에 실패한 이벤트 때문에 version이 건너뛸 수 있으므로 연속된 값을 기대하지 않는다.
+ - 스트림은 max-len 근처에서 잘라낸다. (오래된 이벤트는 버려짐)
+ */
+@Component
+@Slf4j
+public class StockEventPublisher {
+
+    public static final String STREAM_KEY = "product:stock:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long maxLen;
+
+    public StockEventPublisher(StringRedisTemplate redisTemplate,
+                               @Value("${product.stock-events.max-len:100000}") long maxLen) {
+        this.redisTemplate = redisTemplate;
+        this.maxLen = maxLen;
+    }
+
+    // 트랜잭션이 커밋된 후에 발행한다.
+    public void publishAfterCommit(List<StockEventDTO> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(events);
+                }
+            });
+        } else {
+            publish(events);
+        }
+    }
+
+    private void publish(List<StockEventDTO> events) {
+        String at = String.valueOf(System.currentTimeMillis());
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (StockEventDTO event : events) {
+                    stringConnection.xAdd(STREAM_KEY, Map.of(
+                            "productId", String.valueOf(event.getProductId()),
+                            "delta", String.valueOf(event.getDelta()),
+                            "stockQuantity", String.valueOf(event.getStockQuantity()),
+                            "version", String.valueOf(event.getVersion()),
+                            "reason", event.getReason(),
+                            "at", at));
+                }
+                stringConnection.xTrim(STREAM_KEY, maxLen, true);
+                return null;
+            });
+        } catch (Exception e) {
+            // 발행이 실패해도 재고 변경은 이미 완료됨 -> 소비자의 재고는 다음(더 큰 version) 이벤트에서 바로잡힌다.
+            log.warn("재고 변경 이벤트 발행 실패: {}건, 오류: {}", events.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.playdata.productservice.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.productservice.product.dto.ProductStockResDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ 재고 차감 요청의 중복 처리를 막기 위한 객체 (reservationKey 기준)
+
+ ordering-service는 처리하지 못한 주문을 재처리하면서 같은 주문의 차감을 여러 번 요청할 수 있다.
+ (응답이 타임아웃으로 유실된 경우 등) 이미 차감이 끝난 요청이라면 재고를 또 차감하지 않고
+ 저장해 둔 이전 결과를 그대로 돌려준다.
+
+ product:reservation:{key} -> "IN_PROGRESS" (처리 중) 또는 차감 결과 JSON
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationRegistry {
+
+    private static final String KEY_PREFIX = "product:reservation:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 처리 중 표시가 남아있는 최대 시간 (서버가 처리 도중 죽은 경우 대비)
+    @Value("${product.reservation.claim-ttl:1m}")
+    private Duration claimTtl;
+
+    // 차감 결과를 보관하는 시간 (ordering-service의 재처리 기간보다 길어야 한다)
+    @Value("${product.reservation.result-ttl:1d}")
+    private Duration resultTtl;
+
+    /**
+     * 요청을 처리하겠다고 표시
+     * @return 이미 처리가 끝난 요청이라면 이전 결과, 처음 들어온 요청이라면 empty
+     * @throws IllegalStateException 같은 키의 요청이 아직 처리 중인 경우
+     */
+    public Optional<List<ProductStockResDTO>> claim(String reservationKey) {
+        String key = KEY_PREFIX + reservationKey;
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(key, IN_PROGRESS, claimTtl);
+        if (Boolean.TRUE.equals(claimed)) {
+            return Optional.empty();
+        }
+
+        String stored = redisTemplate.opsForValue().get(key);
+        if (stored == null) {
+            // 확인하는 사이에 이전 처리 표시가 만료/삭제됨 -> 다시 시도
+            return claim(reservationKey);
+        }
+        if (IN_PROGRESS.equals(stored)) {
+            throw new IllegalStateException("같은 재고 차감 요청이 처리 중입니다. reservationKey: " + reservationKey);
+        }
+
+        log.info("이미 처리된 재고 차감 요청입니다. reservationKey: {}", reservationKey);
+        try {
+            return Optional.of(objectMapper.readValue(stored, new TypeReference<>() {}));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 재고 차감 결과를 읽을 수 없습니다. reservationKey: " + reservationKey, e);
+        }
+    }
+
+    // 차감이 커밋된 후 결과를 저장 (같은 키로 다시 요청하면 이 결과를 돌려준다)
+    public void complete(String reservationKey, List<ProductStockResDTO> results) {
+        try {
+            redisTemplate.opsForValue().set(
+                    KEY_PREFIX + reservationKey, objectMapper.writeValueAsString(results), resultTtl);
+        } catch (JsonProcessingException e) {
+            // 결과를 남기지 못하면 재요청 시 중복 차감될 수 있으므로 키를 남겨둔 채 로그만 기록
+            log.error("재고 차감 결과 저장 실패! reservationKey: {}", reservationKey, e);
+        }
+    }
+
+    // 차감하지 않았거나 롤백된 경우 -> 처리 표시를 지워서 다시 요청할 수 있게 한다.
+    public void release(String reservationKey) {
+        redisTemplate.delete(KEY_PREFIX + reservationKey);
+    }
+}
@@ -0,0 +1,7 @@
+-- 상품 검색용 FULLTEXT(ngram) 인덱스 (ProductSearchIndex 참고)
+-- JPA(ddl-auto)는 FULLTEXT 인덱스를 만들지 않으므로 배포 전에 한 번만 실행한다.
+-- 서버는 시작할 때 인덱스가 있는지만 확인하고, 없으면 인덱스가 생길 때까지 LIKE 검색을 사용한다.
+-- 데이터가 많다면 인덱스를 만드는 동안 테이블 쓰기가 느려질 수 있으니 트래픽이 적은 시간에 실행한다.
+
+ALTER TABLE tbl_product ADD FULLTEXT INDEX ft_product_name (name) WITH PARSER ngram;
+ALTER TABLE tbl_product ADD FULLTEXT INDEX ft_product_category (category) WITH PARSER ngram;
@@ -0,0 +1,112 @@
+package com.playdata.productservice.product.repository;
+
+import com.playdata.productservice.product.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ 재고 차감(decreaseStock) 동시성 테스트
+ 여러 스레드가 같은 상품의 재고를 동시에 차감해도 초과 판매가 없고, 최종 재고가 정확해야 한다.
+ 각 스레드가 자기 트랜잭션에서 커밋해야 하므로 테스트 메서드의 트랜잭션(자동 롤백)은 사용하지 않는다.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        Long productId = saveProduct(100);
+
+        // 재고 100개에 1개씩 300번 주문 -> 정확히 100번만 성공
+        int succeeded = decreaseConcurrently(productId, 1, 300);
+
+        assertEquals(100, succeeded);
+        assertEquals(0, stockOf(productId));
+        // 성공한 차감마다 재고 버전이 하나씩 올라간다. (이벤트 순서 판단용)
+        assertEquals(100, productRepository.findById(productId).orElseThrow().getStockVersion());
+    }
+
+    @Test
+    void decrementLargerThanRemainingStockIsRejected() throws Exception {
+        Long productId = saveProduct(100);
+
+        // 3개씩 차감 -> 33번 성공하고 1개가 남는다. (음수가 되면 안 됨)
+        int succeeded = decreaseConcurrently(productId, 3, 200);
+
+        assertEquals(33, succeeded);
+        assertEquals(1, stockOf(productId));
+    }
+
+    private int decreaseConcurrently(Long productId, int quantity, int attempts) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Integer updated = transactionTemplate.execute(
+                            status -> productRepository.decreaseStock(productId, quantity));
+                    if (updated != null && updated == 1) {
+                        succeeded.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            // 모든 작업을 제출한 후 한번에 출발시켜서 최대한 겹치게 한다.
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    private Long saveProduct(int stockQuantity) {
+        return productRepository.save(Product.builder()
+                .name("테스트 상품")
+                .category("테스트")
+                .price(1000)
+                .stockQuantity(stockQuantity)
+                .build()).getId();
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+}
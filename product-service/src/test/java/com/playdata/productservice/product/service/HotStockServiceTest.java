@@ -0,0 +1,194 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ 핫 상품 재고: 지정 -> Redis 차감 -> DB 반영 -> 해제 흐름 테스트 (Redis는 컨테이너로 실행)
+ 각 작업이 자기 트랜잭션에서 커밋해야 하므로 테스트 메서드의 트랜잭션(자동 롤백)은 사용하지 않는다.
+ 주기 작업(flush, reconcile, 목록 갱신)은 테스트에서 직접 호출하도록 주기를 길게 잡는다.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "product.hot-stock.flush-interval=3600000",
+        "product.hot-stock.reconcile-interval=3600000",
+        "product.hot-stock.refresh-interval=3600000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(RedisAutoConfiguration.class)
+@Import(HotStockService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class HotStockServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void reserveFlushUnregisterRoundTrip() {
+        Long productId = saveProduct(10);
+        hotStockService.register(productId);
+
+        assertThat(hotStockService.isHot(productId)).isTrue();
+        assertThat(productRepository.findHotStockById(productId)).contains(true);
+
+        // Redis 카운터에서 차감 -> DB에는 아직 반영 전
+        HotStockService.ReserveResult reserved = hotStockService.reserve(Map.of(productId, 3));
+        assertThat(reserved.getNotHot()).isEmpty();
+        assertThat(reserved.getResults().get(0).isSuccess()).isTrue();
+        assertThat(reserved.getResults().get(0).getStockQuantity()).isEqualTo(7);
+        assertThat(stockOf(productId)).isEqualTo(10);
+
+        hotStockService.flush();
+        assertThat(stockOf(productId)).isEqualTo(7);
+
+        // 재고보다 많이 요청하면 아무것도 차감하지 않는다.
+        assertThat(hotStockService.reserve(Map.of(productId, 8)).getResults().get(0).isSuccess()).isFalse();
+        assertThat(hotStockService.reserve(Map.of(productId, 2)).getResults().get(0).isSuccess()).isTrue();
+
+        // 해제 -> 반영되지 않은 변경량까지 DB에 반영하고 카운터를 지운다.
+        hotStockService.unregister(productId);
+        assertThat(hotStockService.isHot(productId)).isFalse();
+        assertThat(stockOf(productId)).isEqualTo(5);
+        assertThat(productRepository.findHotStockById(productId)).contains(false);
+        assertThat(redisTemplate.hasKey("product:stock:" + productId)).isFalse();
+    }
+
+    @Test
+    void databasePathRejectsHotProduct() {
+        Long productId = saveProduct(10);
+        hotStockService.register(productId);
+
+        // 목록이 갱신되지 않은 다른 서버가 DB에서 직접 차감하려고 해도 거절된다.
+        assertThat(decreaseInDatabase(productId, 1)).isZero();
+        assertThat(stockOf(productId)).isEqualTo(10);
+
+        hotStockService.unregister(productId);
+        assertThat(decreaseInDatabase(productId, 1)).isEqualTo(1);
+        assertThat(stockOf(productId)).isEqualTo(9);
+    }
+
+    @Test
+    void reserveOnStaleServerReportsUnregisteredProduct() {
+        Long productId = saveProduct(10);
+        hotStockService.register(productId);
+        hotStockService.unregister(productId);
+
+        // 핫 상품 목록이 아직 갱신되지 않은 서버처럼
+        hotStockService.markHot(productId);
+        HotStockService.ReserveResult reserved = hotStockService.reserve(Map.of(productId, 1));
+
+        assertThat(reserved.getNotHot()).containsExactly(productId);
+        assertThat(reserved.getResults()).isEmpty();
+        assertThat(hotStockService.isHot(productId)).isFalse();
+        assertThat(stockOf(productId)).isEqualTo(10);
+    }
+
+    @Test
+    void unregisterKeepsDeltaWhenCallerRollsBack() {
+        Long productId = saveProduct(10);
+        hotStockService.register(productId);
+        hotStockService.reserve(Map.of(productId, 4));
+
+        // 상품 삭제처럼 해제를 호출한 쪽 트랜잭션이 롤백되더라도 변경량은 DB에 남아야 한다.
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            hotStockService.unregister(productId);
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(stockOf(productId)).isEqualTo(6);
+        assertThat(productRepository.findHotStockById(productId)).contains(false);
+    }
+
+    @Test
+    void stockVersionKeepsIncreasingAcrossRegisterAndUnregister() {
+        Long productId = saveProduct(10);
+        decreaseInDatabase(productId, 1); // DB 경로 -> 1
+        hotStockService.register(productId);
+
+        // Redis 카운터는 DB 버전에서 이어서 올린다.
+        assertThat(hotStockService.reserve(Map.of(productId, 1)).getVersions()).containsEntry(productId, 2L);
+        assertThat(hotStockService.setStock(productId, 20).getVersion()).isEqualTo(3L);
+        // 재고 부족으로 실패한 차감은 버전을 올리지 않는다.
+        assertThat(hotStockService.reserve(Map.of(productId, 100)).getVersions()).isEmpty();
+
+        // 해제하면 Redis 버전이 DB로 옮겨지고, 이후 DB 경로의 변경은 그 다음 버전이 된다.
+        hotStockService.unregister(productId);
+        assertThat(versionOf(productId)).isEqualTo(3L);
+        decreaseInDatabase(productId, 1);
+        assertThat(versionOf(productId)).isEqualTo(4L);
+        assertThat(stockOf(productId)).isEqualTo(19);
+    }
+
+    private long versionOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockVersion();
+    }
+
+    private Integer decreaseInDatabase(Long productId, int quantity) {
+        return transactionTemplate.execute(status -> productRepository.decreaseStock(productId, quantity));
+    }
+
+    private Long saveProduct(int stockQuantity) {
+        return productRepository.save(Product.builder()
+                .name("테스트 상품")
+                .category("테스트")
+                .price(1000)
+                .stockQuantity(stockQuantity)
+                .build()).getId();
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findStockQuantityById(productId).orElseThrow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.playdata.userservice.common.auth;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// 토큰 발급/검증 (JwtTokenProvider) 성능 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    // 측정용 서명 키 (base64, 512비트)
+    private static final String SECRET_KEY =
+            "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJrLW9ubHktYmVuY2htYXJrLW9ubHktYmVuY2htYXJrLW9ubHktMTIzNDU2Nzg5MA==";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // @Value로 주입되는 값들을 직접 채워 넣는다. (스프링 컨텍스트 없이 측정)
+        jwtTokenProvider = new JwtTokenProvider();
+        setField("secretKey", SECRET_KEY);
+        setField("expiration", 30);
+        setField("secretKeyRt", SECRET_KEY);
+        setField("expirationRt", 60 * 24);
+
+        token = jwtTokenProvider.createToken(1L, "user@example.com", "USER");
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtTokenProvider.createToken(1L, "user@example.com", "USER");
+    }
+
+    @Benchmark
+    public TokenUserInfo validateToken() {
+        return jwtTokenProvider.validateAndGetTokenUserInfo(token);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtTokenProvider, value);
+    }
+}
@@ -34,14 +34,16 @@ public class JwtTokenProvider {
                 "exp": "2023-12-27(만료일자)",
                 "iat": "2023-11-27(발급일자)",
                 "email": "로그인한 사람 이메일",
+                "id": "로그인한 사람 id (타 서비스가 user-service에 묻지 않고 바로 사용)",
                 "role": "Premium"
                 ...
                 == 서명
             }
      */
-    public String createToken(String email, String role) {
+    public String createToken(Long id, String email, String role) {
 
         Claims claims = Jwts.claims().setSubject(email);
+        claims.put("id", id);
         claims.put("role", role);
         Date now = new Date();
 
@@ -53,9 +55,10 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String createRefreshToken(String email, String role) {
+    public String createRefreshToken(Long id, String email, String role) {
 
         Claims claims = Jwts.claims().setSubject(email);
+        claims.put("id", id);
         claims.put("role", role);
         Date now = new Date();
 
@@ -87,8 +90,6 @@ public class JwtTokenProvider {
                 .parseClaimsJws(token)
                 .getBody();
 
-        System.out.println("claims = " + claims);
-
         return TokenUserInfo.builder()
                 .email(claims.getSubject())
                 // 클레임이 Role타입으로 바로 변환을 못 해줍니다.
@@ -2,7 +2,9 @@ package com.playdata.userservice.common.configs;
 
 import com.playdata.userservice.common.auth.JwtAuthFilter;
 import com.playdata.userservice.common.exception.CustomAuthenticationEntryPoint;
+import com.playdata.userservice.common.sql.SqlProfilerEndpoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -41,6 +43,8 @@ public class SecurityConfig {
         // 요청 권한 설정(어떤 url이냐에 따라 검사를 할 지 말지를 결정)
         http.authorizeHttpRequests(auth -> {
             auth
+                    // SQL 프로파일러는 실행된 SQL과 파라미터를 보여주고 설정도 바꿀 수 있으므로 관리자만 (아래 /actuator/**보다 먼저)
+                    .requestMatchers(EndpointRequest.to(SqlProfilerEndpoint.class)).hasRole("ADMIN")
                     .requestMatchers("/user/create", "/user/doLogin", "/user/refresh", "/user/findByEmail",
                             "/user/health-check", "/actuator/**").permitAll()
                     .anyRequest().authenticated();
@@ -0,0 +1,129 @@
+package com.playdata.userservice.common.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ DataSource -> Connection -> Statement를 감싸서 execute 계열 메서드의 실행 시간을 SqlProfiler에 기록한다.
+ (JDK 동적 프록시만 사용, 외부 라이브러리 없음)
+
+ 파라미터(setXxx)는 샘플로 뽑힌 PreparedStatement에서만 모은다.
+ 나머지 쿼리는 시간 측정 외에 하는 일이 없다.
+ */
+public final class SqlProfilingProxy {
+
+    private SqlProfilingProxy() {
+    }
+
+    public static DataSource wrap(DataSource dataSource, SqlProfiler profiler) {
+        return (DataSource) Proxy.newProxyInstance(
+                SqlProfilingProxy.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    if (result instanceof Connection connection) {
+                        return wrapConnection(connection, profiler);
+                    }
+                    return result;
+                });
+    }
+
+    private static Connection wrapConnection(Connection connection, SqlProfiler profiler) {
+        return (Connection) Proxy.newProxyInstance(
+                SqlProfilingProxy.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement(sql, ...), prepareCall(sql, ...)은 첫 번째 인자가 SQL
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return wrapStatement(statement, sql, profiler);
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement wrapStatement(Statement statement, String sql, SqlProfiler profiler) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        StatementHandler handler = new StatementHandler(statement, sql, profiler,
+                sql != null && profiler.shouldSample());
+        return (Statement) Proxy.newProxyInstance(
+                SqlProfilingProxy.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlProfiler profiler;
+        private final boolean sampled;
+        private final Map<Integer, Object> parameters;
+        private String lastBatchSql; // Statement.addBatch(sql)로 쌓은 마지막 SQL
+
+        private StatementHandler(Statement target, String preparedSql, SqlProfiler profiler, boolean sampled) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.profiler = profiler;
+            this.sampled = sampled;
+            this.parameters = sampled && profiler.isCaptureParameters() ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (parameters != null) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1 && args[0] instanceof String sql) {
+                lastBatchSql = sql;
+            }
+            return SqlProfilingProxy.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : preparedSql != null ? preparedSql : lastBatchSql;
+            // SQL을 직접 넘기는 Statement는 실행할 때마다 샘플 여부를 정한다.
+            boolean sample = preparedSql != null ? sampled : profiler.shouldSample();
+
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                Object result = SqlProfilingProxy.invoke(target, method, args);
+                success = true;
+                return result;
+            } finally {
+                profiler.record(sql, System.nanoTime() - start, success, sample,
+                        parameters != null ? new ArrayList<>(parameters.values()) : null);
+            }
+        }
+    }
+}
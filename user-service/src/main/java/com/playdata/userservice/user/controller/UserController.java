@@ -80,12 +80,12 @@ public class UserController {
         // 징표를 하나 만들어 주겠다. -> JWT를 발급해서 클라이언트에게 전달해 주겠다!
         // Access Token 발급 -> 수명이 짧습니다. (토큰 탈취 방지)
         String token
-                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
+                = jwtTokenProvider.createToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         // Refresh Token을 생성해 주겠다.
         // Access Token 수명이 만료되었을 경우 Refresh Token을 확인해서 리프레시가 유효한 경우
         // 로그인 없이 Access Token을 재발급 해주는 용도로 사용.
-        String refreshToken = jwtTokenProvider.createRefreshToken(user.getEmail(), user.getRole().toString());
+        String refreshToken = jwtTokenProvider.createRefreshToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         // refreshToken을 db에 저장하자.
 //        userService.saveRefreshToken(user.getEmail(), refreshToken);
@@ -139,7 +139,7 @@ public class UserController {
         }
         // 새로운 access token을 발급
         User user = userService.findById(id);
-        String newAccessToken = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
+        String newAccessToken = jwtTokenProvider.createToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         Map<String, Object> info = new HashMap<>();
         info.put("token", newAccessToken);